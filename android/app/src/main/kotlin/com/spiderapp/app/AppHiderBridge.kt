@@ -0,0 +1,170 @@
+package com.spiderapp.app
+
+import android.app.admin.DevicePolicyManager
+import android.content.BroadcastReceiver
+import android.content.ComponentName
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import android.content.pm.PackageManager
+import android.os.Handler
+import io.flutter.plugin.common.BinaryMessenger
+import io.flutter.plugin.common.EventChannel
+import io.flutter.plugin.common.MethodCall
+import io.flutter.plugin.common.MethodChannel
+import java.util.concurrent.ExecutorService
+
+/**
+ * Native side of the `app_hider` channel.
+ *
+ * Every method takes a list of packages so a whole web can be hidden, shown or
+ * queried in one round-trip. Hidden-state changes, whether made here or by a
+ * package broadcast, are pushed to Dart over [EVENTS_CHANNEL] as a
+ * `packageName -> hidden` map.
+ */
+class AppHiderBridge(
+    private val context: Context,
+    messenger: BinaryMessenger,
+    private val worker: ExecutorService,
+    private val mainHandler: Handler,
+) : MethodChannel.MethodCallHandler, EventChannel.StreamHandler {
+
+    private val policyManager =
+        context.getSystemService(Context.DEVICE_POLICY_SERVICE) as DevicePolicyManager
+    private val admin = ComponentName(context, HiderAdminReceiver::class.java)
+
+    private var events: EventChannel.EventSink? = null
+    private var packageReceiver: BroadcastReceiver? = null
+
+    init {
+        MethodChannel(messenger, METHOD_CHANNEL).setMethodCallHandler(this)
+        EventChannel(messenger, EVENTS_CHANNEL).setStreamHandler(this)
+    }
+
+    override fun onMethodCall(call: MethodCall, result: MethodChannel.Result) {
+        when (call.method) {
+            "setHidden" -> {
+                val packages = call.argument<List<String>>("packageNames").orEmpty()
+                val hidden = call.argument<Boolean>("hidden") ?: true
+                run(result) { setHidden(packages, hidden) }
+            }
+            "getHiddenStatus" -> {
+                val packages = call.argument<List<String>>("packageNames").orEmpty()
+                run(result) { packages.associateWith { isHidden(it) } }
+            }
+            "hideApp", "showApp" -> {
+                val packageName = call.argument<String>("packageName")
+                if (packageName == null) {
+                    result.error("ARGUMENT", "packageName is required", null)
+                    return
+                }
+                val hidden = call.method == "hideApp"
+                run(result) { setHidden(listOf(packageName), hidden)[packageName] ?: false }
+            }
+            "isAppHidden" -> {
+                val packageName = call.argument<String>("packageName")
+                if (packageName == null) {
+                    result.error("ARGUMENT", "packageName is required", null)
+                    return
+                }
+                run(result) { isHidden(packageName) }
+            }
+            "canHide" -> result.success(canHide())
+            else -> result.notImplemented()
+        }
+    }
+
+    override fun onListen(arguments: Any?, sink: EventChannel.EventSink?) {
+        events = sink
+        val receiver = object : BroadcastReceiver() {
+            override fun onReceive(context: Context, intent: Intent) {
+                val packageName = intent.data?.schemeSpecificPart ?: return
+                worker.execute {
+                    val change = mapOf(packageName to isHidden(packageName))
+                    mainHandler.post { events?.success(change) }
+                }
+            }
+        }
+        val filter = IntentFilter().apply {
+            addAction(Intent.ACTION_PACKAGE_CHANGED)
+            addAction(Intent.ACTION_PACKAGE_ADDED)
+            addAction(Intent.ACTION_PACKAGE_REMOVED)
+            addDataScheme("package")
+        }
+        context.registerReceiver(receiver, filter)
+        packageReceiver = receiver
+    }
+
+    override fun onCancel(arguments: Any?) {
+        packageReceiver?.let { context.unregisterReceiver(it) }
+        packageReceiver = null
+        events = null
+    }
+
+    fun dispose() = onCancel(null)
+
+    private fun canHide(): Boolean =
+        policyManager.isDeviceOwnerApp(context.packageName) ||
+            policyManager.isProfileOwnerApp(context.packageName)
+
+    /** Returns, per package, whether it is now in the requested state. */
+    private fun setHidden(packages: List<String>, hidden: Boolean): Map<String, Boolean> {
+        val outcome = LinkedHashMap<String, Boolean>()
+        val changed = LinkedHashMap<String, Boolean>()
+        val allowed = canHide()
+        for (packageName in packages) {
+            val ok = allowed && try {
+                policyManager.setApplicationHidden(admin, packageName, hidden) ||
+                    isHidden(packageName) == hidden
+            } catch (e: SecurityException) {
+                false
+            }
+            outcome[packageName] = ok
+            if (ok) changed[packageName] = hidden
+        }
+        if (changed.isNotEmpty()) mainHandler.post { events?.success(changed) }
+        return outcome
+    }
+
+    private fun isHidden(packageName: String): Boolean {
+        if (canHide()) {
+            try {
+                return policyManager.isApplicationHidden(admin, packageName)
+            } catch (e: SecurityException) {
+                // Fall through to the package manager check.
+            }
+        }
+        // Only the hidden flag counts; a disabled app is not hidden.
+        return try {
+            context.packageManager.getApplicationInfo(packageName, 0)
+            false
+        } catch (e: PackageManager.NameNotFoundException) {
+            // Hidden packages only resolve when uninstalled ones are included.
+            try {
+                @Suppress("DEPRECATION")
+                context.packageManager.getApplicationInfo(
+                    packageName, PackageManager.GET_UNINSTALLED_PACKAGES,
+                )
+                true
+            } catch (e: PackageManager.NameNotFoundException) {
+                false
+            }
+        }
+    }
+
+    private fun run(result: MethodChannel.Result, task: () -> Any?) {
+        worker.execute {
+            try {
+                val value = task()
+                mainHandler.post { result.success(value) }
+            } catch (e: Exception) {
+                mainHandler.post { result.error("ERROR", e.message, null) }
+            }
+        }
+    }
+
+    companion object {
+        private const val METHOD_CHANNEL = "app_hider"
+        private const val EVENTS_CHANNEL = "app_hider/events"
+    }
+}
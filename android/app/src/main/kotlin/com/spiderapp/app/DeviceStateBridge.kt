@@ -0,0 +1,73 @@
+package com.spiderapp.app
+
+import android.app.ActivityManager
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import android.os.PowerManager
+import io.flutter.plugin.common.BinaryMessenger
+import io.flutter.plugin.common.EventChannel
+import io.flutter.plugin.common.MethodCall
+import io.flutter.plugin.common.MethodChannel
+
+/**
+ * Native side of the `spider/device` channel.
+ *
+ * Reports what the Dart side needs to size its work to the device: battery
+ * saver, whether the system classes it as low-RAM, the per-app heap budget
+ * and the core count. Battery saver changes are pushed on the events channel
+ * as plain booleans.
+ */
+class DeviceStateBridge(
+    private val context: Context,
+    messenger: BinaryMessenger,
+) : MethodChannel.MethodCallHandler, EventChannel.StreamHandler {
+
+    private val powerManager = context.getSystemService(Context.POWER_SERVICE) as PowerManager
+    private val activityManager =
+        context.getSystemService(Context.ACTIVITY_SERVICE) as ActivityManager
+
+    private var powerReceiver: BroadcastReceiver? = null
+
+    init {
+        MethodChannel(messenger, METHOD_CHANNEL).setMethodCallHandler(this)
+        EventChannel(messenger, POWER_CHANNEL).setStreamHandler(this)
+    }
+
+    override fun onMethodCall(call: MethodCall, result: MethodChannel.Result) {
+        when (call.method) {
+            "getDeviceProfile" -> result.success(
+                mapOf(
+                    "powerSave" to powerManager.isPowerSaveMode,
+                    "lowRam" to activityManager.isLowRamDevice,
+                    "memoryClassMb" to activityManager.memoryClass,
+                    "processors" to Runtime.getRuntime().availableProcessors(),
+                )
+            )
+            else -> result.notImplemented()
+        }
+    }
+
+    override fun onListen(arguments: Any?, sink: EventChannel.EventSink?) {
+        val receiver = object : BroadcastReceiver() {
+            override fun onReceive(context: Context, intent: Intent) {
+                sink?.success(powerManager.isPowerSaveMode)
+            }
+        }
+        context.registerReceiver(receiver, IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED))
+        powerReceiver = receiver
+    }
+
+    override fun onCancel(arguments: Any?) {
+        powerReceiver?.let { context.unregisterReceiver(it) }
+        powerReceiver = null
+    }
+
+    fun dispose() = onCancel(null)
+
+    companion object {
+        private const val METHOD_CHANNEL = "spider/device"
+        private const val POWER_CHANNEL = "spider/device/power"
+    }
+}
@@ -0,0 +1,9 @@
+package com.spiderapp.app
+
+import android.app.admin.DeviceAdminReceiver
+
+/**
+ * Device admin component. Hiding other packages is only allowed once the app
+ * has been provisioned as device or profile owner with this receiver.
+ */
+class HiderAdminReceiver : DeviceAdminReceiver()
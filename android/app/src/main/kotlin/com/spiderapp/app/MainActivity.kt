@@ -1,5 +1,115 @@
 package com.spiderapp.app
 
+import android.content.ActivityNotFoundException
+import android.content.Intent
+import android.content.pm.ApplicationInfo
+import android.content.pm.PackageInfo
+import android.os.Build
+import android.os.Handler
+import android.os.Looper
 import io.flutter.embedding.android.FlutterActivity
+import io.flutter.embedding.engine.FlutterEngine
+import io.flutter.plugin.common.MethodChannel
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
 
-class MainActivity : FlutterActivity()
+class MainActivity : FlutterActivity() {
+    private val worker = Executors.newSingleThreadExecutor()
+    private val mainHandler = Handler(Looper.getMainLooper())
+    private var appHider: AppHiderBridge? = null
+    private var deviceState: DeviceStateBridge? = null
+    private val launchIntents = ConcurrentHashMap<String, Intent>()
+
+    override fun configureFlutterEngine(flutterEngine: FlutterEngine) {
+        super.configureFlutterEngine(flutterEngine)
+
+        MethodChannel(flutterEngine.dartExecutor.binaryMessenger, PACKAGES_CHANNEL)
+            .setMethodCallHandler { call, result ->
+                when (call.method) {
+                    "getPackageSnapshot" -> runInBackground(result) { packageSnapshot() }
+                    "resolveLaunchTargets" -> {
+                        val packages = call.argument<List<String>>("packageNames").orEmpty()
+                        runInBackground(result) { resolveLaunchTargets(packages) }
+                    }
+                    "launchPackage" -> {
+                        val packageName = call.argument<String>("packageName")
+                        result.success(packageName != null && launchPackage(packageName))
+                    }
+                    else -> result.notImplemented()
+                }
+            }
+
+        appHider = AppHiderBridge(this, flutterEngine.dartExecutor.binaryMessenger, worker, mainHandler)
+        deviceState = DeviceStateBridge(this, flutterEngine.dartExecutor.binaryMessenger)
+    }
+
+    override fun onDestroy() {
+        appHider?.dispose()
+        deviceState?.dispose()
+        worker.shutdown()
+        super.onDestroy()
+    }
+
+    /**
+     * Lists user-installed packages with just enough data to detect changes.
+     * No labels or icons are loaded, so this stays cheap on large devices.
+     */
+    private fun packageSnapshot(): List<Map<String, Any>> {
+        return packageManager.getInstalledPackages(0)
+            .filter { info -> !isSystemApp(info.applicationInfo) }
+            .map { info ->
+                mapOf(
+                    "packageName" to info.packageName,
+                    "versionCode" to versionCodeOf(info),
+                    "lastUpdateTime" to info.lastUpdateTime,
+                )
+            }
+    }
+
+    /** Looks up and caches launch intents so a later tap is one startActivity. */
+    private fun resolveLaunchTargets(packages: List<String>): Map<String, Boolean> =
+        packages.associateWith { packageName ->
+            val intent = packageManager.getLaunchIntentForPackage(packageName)
+            if (intent == null) launchIntents.remove(packageName)
+            else launchIntents[packageName] = intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK)
+            intent != null
+        }
+
+    private fun launchPackage(packageName: String): Boolean {
+        val intent = launchIntents[packageName]
+            ?: packageManager.getLaunchIntentForPackage(packageName)
+                ?.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK)
+            ?: return false
+        return try {
+            startActivity(intent)
+            true
+        } catch (e: ActivityNotFoundException) {
+            // Stale cache entry, e.g. the app was updated and its launcher activity renamed.
+            launchIntents.remove(packageName)
+            false
+        }
+    }
+
+    private fun isSystemApp(info: ApplicationInfo?): Boolean =
+        info == null || (info.flags and ApplicationInfo.FLAG_SYSTEM) != 0
+
+    @Suppress("DEPRECATION")
+    private fun versionCodeOf(info: PackageInfo): Long =
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) info.longVersionCode
+        else info.versionCode.toLong()
+
+    private fun runInBackground(result: MethodChannel.Result, task: () -> Any?) {
+        worker.execute {
+            try {
+                val value = task()
+                mainHandler.post { result.success(value) }
+            } catch (e: Exception) {
+                mainHandler.post { result.error("ERROR", e.message, null) }
+            }
+        }
+    }
+
+    companion object {
+        private const val PACKAGES_CHANNEL = "spider/packages"
+    }
+}
@@ -0,0 +1,59 @@
+import 'dart:io';
+
+import 'package:flutter/material.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:integration_test/integration_test.dart';
+
+import 'package:spider/app_data.dart';
+import 'package:spider/app_store.dart';
+import 'package:spider/home_screen.dart';
+import 'package:spider/selection_repository.dart';
+
+/// Device frame timings for HomeScreen with 0-8 apps, particles on and off.
+///
+/// Run with:
+///   flutter drive --profile --driver=test_driver/perf_driver.dart \
+///     --target=integration_test/home_frames_test.dart
+///
+/// Each configuration is reported as `home_<apps>_<particles>` and written
+/// by the driver to build/benchmarks/. The selections it sets up are saved
+/// to a temporary directory, so the device's own web is left alone.
+void main() {
+  final binding = IntegrationTestWidgetsFlutterBinding.ensureInitialized();
+  binding.framePolicy = LiveTestWidgetsFlutterBindingFramePolicy.fullyLive;
+
+  late Directory root;
+
+  setUpAll(() async {
+    root = await Directory.systemTemp.createTemp('spider_frames');
+    await Directory('${root.path}/icons').create();
+    SelectedAppsStore.debugReset(root: root);
+  });
+
+  tearDownAll(() async {
+    await SelectedAppsStore.flush();
+    SelectedAppsStore.debugReset();
+    await root.delete(recursive: true);
+  });
+
+  for (final particles in [false, true]) {
+    for (final count in [0, 1, 4, 8]) {
+      final label = 'home_${count}_${particles ? 'particles' : 'plain'}';
+
+      testWidgets(label, (tester) async {
+        SelectionRepository.replace(allSocialApps.take(count).toList());
+
+        await tester.pumpWidget(MaterialApp(
+          debugShowCheckedModeBanner: false,
+          home: HomeScreen(showParticles: particles),
+        ));
+        await tester.pump(const Duration(seconds: 1));
+
+        await binding.watchPerformance(() async {
+          // Idle animation only: rotating web, particles and glows.
+          await tester.pump(const Duration(seconds: 5));
+        }, reportKey: label);
+      });
+    }
+  }
+}
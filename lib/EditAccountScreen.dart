@@ -1,10 +1,7 @@
 import 'package:flutter/material.dart';
-import 'package:http/http.dart' as http;
-import 'dart:convert';
 
 import 'login_screen.dart'; // for UserSession
-
-const String baseUrl = 'https://my-backend-production-d82c.up.railway.app';
+import 'profile_repository.dart';
 
 class EditAccountScreen extends StatefulWidget {
   const EditAccountScreen({super.key});
@@ -34,105 +31,66 @@ class _EditAccountScreenState extends State<EditAccountScreen> {
     fetchUserData();
   }
 
+  // Fills the form from the cached profile; only a first visit waits.
   Future<void> fetchUserData() async {
     final userId = UserSession.userId;
     if (userId == null) return;
 
-    try {
-      final url = Uri.parse('$baseUrl/users/$userId');
-      final response = await http.get(url);
-
-      if (response.statusCode == 200) {
-        final data = jsonDecode(response.body);
-        setState(() {
-          _nameController.text = data['fullName'] ?? '';
-          _emailController.text = data['email'] ?? '';
-          _passwordController.text = ''; // Keep password field empty for security
-          isLoading = false;
-        });
-      } else {
-        print('Failed to load user: ${response.body}');
-        setState(() => isLoading = false);
-      }
-    } catch (e) {
-      print('Error fetching user: $e');
-      setState(() => isLoading = false);
+    var profile = await ProfileRepository.open(userId);
+    if (profile == null) {
+      await ProfileRepository.refresh(userId);
+      profile = ProfileRepository.profile.value;
     }
+    if (!mounted) return;
+
+    setState(() {
+      _nameController.text = profile?.fullName ?? '';
+      _emailController.text = profile?.email ?? '';
+      _passwordController.text = ''; // Keep password field empty for security
+      isLoading = false;
+    });
   }
 
   Future<void> updateAccount() async {
     if (!_formKey.currentState!.validate()) return;
     if (isUpdating) return;
 
-    setState(() => isUpdating = true);
-
     final userId = UserSession.userId;
-    if (userId == null) {
-      setState(() => isUpdating = false);
-      return;
-    }
+    if (userId == null) return;
 
-    final body = {
+    final fields = {
       "fullName": _nameController.text,
       "email": _emailController.text,
     };
 
-    if (_passwordController.text.isNotEmpty) {
-      body["password"] = _passwordController.text;
-    }
-
-    try {
-      final url = Uri.parse('$baseUrl/users/$userId');
-      final response = await http.put(
-        url,
-        headers: {'Content-Type': 'application/json'},
-        body: jsonEncode(body),
-      );
-
-      if (response.statusCode == 200) {
-        ScaffoldMessenger.of(context).showSnackBar(
-          const SnackBar(
-            content: Text('Account updated successfully!'),
-            backgroundColor: Colors.green,
-          ),
-        );
-        Navigator.pop(context, {
-          'fullName': _nameController.text,
-          'email': _emailController.text,
-          'updated': true,
-        });
-      } else {
-        print("Update failed. Status: ${response.statusCode}");
-        print("Response body: ${response.body}");
-
-        String errorMessage = 'Update failed';
-        try {
-          final errorData = jsonDecode(response.body);
-          errorMessage = errorData['message'] ?? errorMessage;
-        } catch (e) {
-          print("Error parsing error response: $e");
-        }
-
-        ScaffoldMessenger.of(context).showSnackBar(
-          SnackBar(
-            content: Text(errorMessage),
-            backgroundColor: Colors.red,
-          ),
-        );
-      }
-    } catch (e) {
-      print("Error updating account: $e");
+    if (_passwordController.text.isEmpty) {
+      // Applied locally at once and synced in the background, offline
+      // included. My Account shows the sync state and any rejection.
+      await ProfileRepository.edit(userId, fields);
+      if (!mounted) return;
       ScaffoldMessenger.of(context).showSnackBar(
-        const SnackBar(
-          content: Text('Network error occurred'),
-          backgroundColor: Colors.red,
-        ),
+        const SnackBar(content: Text('Changes saved, syncing…')),
       );
-    } finally {
-      if (mounted) {
-        setState(() => isUpdating = false);
-      }
+      Navigator.pop(context);
+      return;
     }
+
+    // Password changes go straight to the server and are never queued.
+    setState(() => isUpdating = true);
+    final result = await ProfileRepository.changePassword(userId, {
+      ...fields,
+      "password": _passwordController.text,
+    });
+    if (!mounted) return;
+    setState(() => isUpdating = false);
+
+    ScaffoldMessenger.of(context).showSnackBar(
+      SnackBar(
+        content: Text(result.success ? 'Account updated successfully!' : result.message!),
+        backgroundColor: result.success ? Colors.green : Colors.red,
+      ),
+    );
+    if (result.success) Navigator.pop(context);
   }
 
   @override
@@ -1,6 +1,7 @@
 import 'package:flutter/material.dart';
-import 'package:http/http.dart' as http;
+import 'assets.dart';
 import 'dart:convert';
+import 'api_client.dart';
 
 class ForgotPasswordScreen extends StatefulWidget {
   const ForgotPasswordScreen({super.key});
@@ -18,8 +19,6 @@ class _ForgotPasswordScreenState extends State<ForgotPasswordScreen> {
   bool _otpVerified = false;
   bool _isLoading = false;
   String _errorMessage = '';
-  // Using the same base URL from your demo
-  final String baseUrl = 'https://my-backend-production-d82c.up.railway.app';
 
   @override
   void dispose() {
@@ -44,11 +43,7 @@ class _ForgotPasswordScreenState extends State<ForgotPasswordScreen> {
     });
 
     try {
-      final response = await http.post(
-        Uri.parse('$baseUrl/send-otp'),
-        headers: {'Content-Type': 'application/json'},
-        body: json.encode({'email': email}),
-      );
+      final response = await ApiClient.instance.post('/send-otp', {'email': email});
 
       final responseData = json.decode(response.body);
 
@@ -90,14 +85,10 @@ class _ForgotPasswordScreenState extends State<ForgotPasswordScreen> {
     });
 
     try {
-      final response = await http.post(
-        Uri.parse('$baseUrl/verify-otp'),
-        headers: {'Content-Type': 'application/json'},
-        body: json.encode({
-          'email': email,
-          'otp': otp,
-        }),
-      );
+      final response = await ApiClient.instance.post('/verify-otp', {
+        'email': email,
+        'otp': otp,
+      });
 
       final responseData = json.decode(response.body);
 
@@ -139,14 +130,10 @@ class _ForgotPasswordScreenState extends State<ForgotPasswordScreen> {
     });
 
     try {
-      final response = await http.post(
-        Uri.parse('$baseUrl/reset-password'),
-        headers: {'Content-Type': 'application/json'},
-        body: json.encode({
-          'email': email,
-          'newPassword': newPassword,
-        }),
-      );
+      final response = await ApiClient.instance.post('/reset-password', {
+        'email': email,
+        'newPassword': newPassword,
+      });
 
       final responseData = json.decode(response.body);
 
@@ -190,9 +177,9 @@ class _ForgotPasswordScreenState extends State<ForgotPasswordScreen> {
           Container(
             width: double.infinity,
             height: double.infinity,
-            decoration: const BoxDecoration(
+            decoration: BoxDecoration(
               image: DecorationImage(
-                image: AssetImage('assets/splash/image 1-2.png'),
+                image: Assets.splashImage1.fullScreen(context),
                 fit: BoxFit.cover,
               ),
             ),
@@ -1,125 +1,51 @@
 import 'package:flutter/material.dart';
-import 'package:shared_preferences/shared_preferences.dart';
 import 'package:spider/app_data.dart';
-import 'dart:convert';
-import 'dart:typed_data';
+import 'package:spider/selection_repository.dart';
 
 class MyAppsScreen extends StatefulWidget {
-  final List<SocialApp> selectedApps;
-
-  const MyAppsScreen({Key? key, required this.selectedApps}) : super(key: key);
+  const MyAppsScreen({Key? key}) : super(key: key);
 
   @override
   State<MyAppsScreen> createState() => _MyAppsScreenState();
 }
 
 class _MyAppsScreenState extends State<MyAppsScreen> {
-  late List<SocialApp> _currentApps;
-  bool _isLoading = true;
+  bool _isLoading = !SelectionRepository.isLoaded;
 
   @override
   void initState() {
     super.initState();
-    _currentApps = List.from(widget.selectedApps);
-    _loadSelectedApps();
+    if (_isLoading) _loadSelectedApps();
   }
 
+  // Normally already loaded by home; this only covers a cold deep link.
   Future<void> _loadSelectedApps() async {
     try {
-      final prefs = await SharedPreferences.getInstance();
-      final savedAppData = prefs.getStringList('selected_apps_data') ?? [];
-
-      List<SocialApp> loadedApps = [];
-
-      if (savedAppData.isNotEmpty) {
-        loadedApps = savedAppData.map((jsonStr) {
-          final data = jsonDecode(jsonStr);
-          return SocialApp(
-            name: data['name'],
-            packageName: data['packageName'],
-            icon: base64Decode(data['icon']),
-            color: Color(data['color']),
-          );
-        }).toList();
-      }
-
-      if (loadedApps.isEmpty) {
-        final savedAppNames = prefs.getStringList('selected_apps') ?? [];
-        loadedApps = allSocialApps.where((app) => savedAppNames.contains(app.name)).toList();
-      }
-
-      setState(() {
-        _currentApps = loadedApps;
-        _isLoading = false;
-      });
+      await SelectionRepository.load();
     } catch (e) {
       debugPrint('Error loading apps: $e');
-      setState(() {
-        _isLoading = false;
-      });
-    }
-  }
-
-  Future<void> _saveSelectedApps() async {
-    try {
-      final prefs = await SharedPreferences.getInstance();
-      final appData = _currentApps.map((app) => jsonEncode({
-        'name': app.name,
-        'packageName': app.packageName,
-        'icon': base64Encode(app.icon),
-        'color': app.color.value,
-      })).toList();
-
-      await prefs.setStringList('selected_apps_data', appData);
-    } catch (e) {
-      debugPrint('Error saving apps: $e');
-      rethrow;
     }
+    if (mounted) setState(() => _isLoading = false);
   }
 
-  Future<void> _removeApp(int index) async {
-    if (index < 0 || index >= _currentApps.length) return;
+  void _removeApp(SocialApp app) {
+    final index = SelectionRepository.remove(app.packageName);
+    if (index == -1) return;
 
-    final removedApp = _currentApps[index];
-    final messenger = ScaffoldMessenger.of(context);
-
-    setState(() {
-      _currentApps.removeAt(index);
-    });
-
-    try {
-      await _saveSelectedApps();
-      messenger.showSnackBar(
-        SnackBar(
-          content: Text('${removedApp.name} removed'),
-          duration: const Duration(seconds: 2),
-          behavior: SnackBarBehavior.floating,
-          shape: RoundedRectangleBorder(
-            borderRadius: BorderRadius.circular(10),
-          ),
-          action: SnackBarAction(
-            label: 'Undo',
-            onPressed: () {
-              setState(() {
-                _currentApps.insert(index, removedApp);
-              });
-              _saveSelectedApps();
-            },
-          ),
+    ScaffoldMessenger.of(context).showSnackBar(
+      SnackBar(
+        content: Text('${app.name} removed'),
+        duration: const Duration(seconds: 2),
+        behavior: SnackBarBehavior.floating,
+        shape: RoundedRectangleBorder(
+          borderRadius: BorderRadius.circular(10),
         ),
-      );
-    } catch (e) {
-      debugPrint('Error removing app: $e');
-      setState(() {
-        _currentApps.insert(index, removedApp);
-      });
-      messenger.showSnackBar(
-        const SnackBar(
-          content: Text('Failed to remove app'),
-          duration: Duration(seconds: 2),
+        action: SnackBarAction(
+          label: 'Undo',
+          onPressed: () => SelectionRepository.insert(index, app),
         ),
-      );
-    }
+      ),
+    );
   }
 
   Widget _buildAppItem(SocialApp app, int index) {
@@ -148,11 +74,7 @@ class _MyAppsScreenState extends State<MyAppsScreen> {
             color: app.color.withOpacity(0.2),
             shape: BoxShape.circle,
           ),
-          child: Image.memory(
-            app.icon,
-            width: 28,
-            height: 28,
-          ),
+          child: app.getIconWidget(size: 28),
         ),
         title: Text(
           app.name,
@@ -164,7 +86,7 @@ class _MyAppsScreenState extends State<MyAppsScreen> {
         ),
         trailing: IconButton(
           icon: Icon(Icons.delete_outline, color: Colors.red.withOpacity(0.8)),
-          onPressed: () => _removeApp(index),
+          onPressed: () => _removeApp(app),
         ),
       ),
     );
@@ -286,7 +208,7 @@ class _MyAppsScreenState extends State<MyAppsScreen> {
         children: [
           IconButton(
             icon: const Icon(Icons.arrow_back, color: Colors.white),
-            onPressed: () => Navigator.pop(context, _currentApps),
+            onPressed: () => Navigator.pop(context),
           ),
           const SizedBox(width: 8),
           const Text(
@@ -317,13 +239,16 @@ class _MyAppsScreenState extends State<MyAppsScreen> {
                 Expanded(
                   child: _isLoading
                       ? _buildLoadingState()
-                      : _currentApps.isEmpty
-                      ? _buildEmptyState()
-                      : ListView.builder(
-                    padding: const EdgeInsets.only(top: 8, bottom: 20),
-                    itemCount: _currentApps.length,
-                    itemBuilder: (context, index) =>
-                        _buildAppItem(_currentApps[index], index),
+                      : ValueListenableBuilder<List<SocialApp>>(
+                    valueListenable: SelectionRepository.apps,
+                    builder: (context, apps, _) => apps.isEmpty
+                        ? _buildEmptyState()
+                        : ListView.builder(
+                      padding: const EdgeInsets.only(top: 8, bottom: 20),
+                      itemCount: apps.length,
+                      itemBuilder: (context, index) =>
+                          _buildAppItem(apps[index], index),
+                    ),
                   ),
                 ),
               ],
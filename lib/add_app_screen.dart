@@ -1,16 +1,20 @@
-import 'dart:convert';
+import 'dart:async';
 import 'dart:io';
 import 'dart:typed_data';
+import 'package:flutter/foundation.dart';
 import 'package:flutter/material.dart';
-import 'package:shared_preferences/shared_preferences.dart';
-import 'package:installed_apps/installed_apps.dart';
-import 'package:installed_apps/app_info.dart';
+import 'app_asset.dart';
 import 'app_data.dart' as app_data;
+import 'app_scanner.dart';
+import 'app_search.dart';
+import 'assets.dart';
+import 'icon_cache.dart';
+import 'icon_palette.dart';
+import 'selection_repository.dart';
 
+/// Picker for the apps on the web; edits [SelectionRepository] directly.
 class AddAppsScreen extends StatefulWidget {
-  final List<app_data.SocialApp> initialSelectedApps;
-
-  const AddAppsScreen({Key? key, required this.initialSelectedApps}) : super(key: key);
+  const AddAppsScreen({Key? key}) : super(key: key);
 
   @override
   State<AddAppsScreen> createState() => _AddAppsScreenState();
@@ -19,110 +23,180 @@ class AddAppsScreen extends StatefulWidget {
 class _AddAppsScreenState extends State<AddAppsScreen> {
   List<app_data.SocialApp> allSocialApps = [];
   List<app_data.SocialApp> filteredApps = [];
-  List<app_data.SocialApp> selectedApps = [];
+
+  // Selection lookups are O(1); each row listens only to its own flag.
+  final Set<String> _selected = {};
+  final Map<String, ValueNotifier<bool>> _rowSelection = {};
+  final ValueNotifier<int> _selectedCount = ValueNotifier(0);
+
+  // Defaults shown to a user who never saved a selection; they are only
+  // written to the repository once the user confirms or edits them.
+  List<app_data.SocialApp>? _defaults;
   late Future<void> _initialLoad;
+  StreamSubscription<List<app_data.SocialApp>>? _scanSubscription;
   TextEditingController searchController = TextEditingController();
   bool isLoading = false;
 
+  final AppSearchIndex _searchIndex = AppSearchIndex();
+  AppSearchResult? _lastSearch;
+  Timer? _searchDebounce;
+
   @override
   void initState() {
     super.initState();
-    selectedApps = List.from(widget.initialSelectedApps);
-    _initialLoad = _loadApps();
-    searchController.addListener(_filterApps);
+    _syncSelection();
+    SelectionRepository.apps.addListener(_syncSelection);
+    SelectionRepository.load();
+    // Failures are logged in _loadApps; only callers that await it see them.
+    _initialLoad = _loadApps()..ignore();
+    searchController.addListener(_onSearchChanged);
   }
 
   @override
   void dispose() {
+    SelectionRepository.apps.removeListener(_syncSelection);
+    _scanSubscription?.cancel();
+    _searchDebounce?.cancel();
     searchController.dispose();
+    for (final notifier in _rowSelection.values) {
+      notifier.dispose();
+    }
+    _selectedCount.dispose();
     super.dispose();
   }
 
-  Future<void> _loadApps() async {
+  Future<void> _loadApps() {
     setState(() => isLoading = true);
-    try {
-      if (Platform.isIOS) {
-        allSocialApps = app_data.allSocialApps;
-      } else {
-        List<AppInfo> apps = await InstalledApps.getInstalledApps(true, true);
-        allSocialApps = apps.map((appInfo) {
-          return app_data.SocialApp(
-            name: appInfo.name,
-            icon: appInfo.icon,
-            color: _generateColorFromName(appInfo.name),
-            packageName: appInfo.packageName,
-          );
-        }).toList();
-      }
-
-      setState(() {
-        filteredApps = List.from(allSocialApps);
-        // If no apps were passed in, select the first 5 as default
-        if (widget.initialSelectedApps.isEmpty) {
-          selectedApps = allSocialApps.take(5).toList();
-        }
-      });
-
-    } catch (e) {
-      debugPrint('Error loading apps: $e');
-    } finally {
-      setState(() => isLoading = false);
+    final done = Completer<void>();
+
+    _scanSubscription = AppScanner.scan().listen(
+      (page) {
+        final firstPage = allSocialApps.isEmpty;
+        _searchIndex.addAll(page);
+        setState(() {
+          allSocialApps.addAll(page);
+          isLoading = false;
+        });
+        _filterApps();
+
+        if (firstPage) _preselectDefaults(page.take(5).toList());
+      },
+      onError: (Object e, StackTrace stack) {
+        debugPrint('Error loading apps: $e');
+        if (mounted) setState(() => isLoading = false);
+        if (!done.isCompleted) done.completeError(e, stack);
+      },
+      onDone: () {
+        if (mounted) setState(() => isLoading = false);
+        if (!done.isCompleted) done.complete();
+        _applyPackageChanges();
+      },
+      cancelOnError: true,
+    );
+    return done.future;
+  }
+
+  // The list may have come from the on-device index; fold in whatever was
+  // installed, updated or removed since it was written.
+  Future<void> _applyPackageChanges() async {
+    final delta = await AppScanner.sync();
+    if (delta.isEmpty || !mounted) return;
+
+    final updated = {for (final app in delta.updated) app.packageName: app};
+    final removed = delta.removed.toSet();
+
+    _searchIndex
+      ..removeWhere(removed)
+      ..replaceAll([...updated.values, ...delta.added]);
+    // Updated apps keep their place in the list; new ones go at the end.
+    setState(() {
+      allSocialApps = [
+        for (final app in allSocialApps)
+          if (!removed.contains(app.packageName)) updated[app.packageName] ?? app,
+        ...delta.added,
+      ];
+    });
+    _filterApps();
+  }
+
+  // A new user starts with the first 5 apps ticked; someone who removed
+  // every app on purpose keeps an empty web.
+  Future<void> _preselectDefaults(List<app_data.SocialApp> apps) async {
+    await SelectionRepository.load();
+    if (!mounted ||
+        SelectionRepository.hasStoredSelection ||
+        SelectionRepository.apps.value.isNotEmpty) {
+      return;
     }
+    _defaults = apps;
+    _syncSelection();
   }
 
-  Color _generateColorFromName(String input) {
-    final hash = input.codeUnits.fold(0, (prev, el) => prev + el);
-    final hue = (hash * 37) % 360;
-    return HSLColor.fromAHSL(1.0, hue.toDouble(), 0.6, 0.5).toColor();
+  // Saves the preselected defaults, if they are still pending.
+  Future<void> _confirmDefaults() async {
+    final defaults = _defaults;
+    if (defaults == null) return;
+    _defaults = null;
+    SelectionRepository.replace(defaults);
+    final withIcons = await Future.wait(defaults.map(AppScanner.withIcon));
+    withIcons.forEach(SelectionRepository.update);
   }
 
-  void _filterApps() {
-    final query = searchController.text.toLowerCase();
-    setState(() {
-      filteredApps = query.isEmpty
-          ? List.from(allSocialApps)
-          : allSocialApps.where((app) => app.name.toLowerCase().contains(query)).toList();
+  // Mirrors the repository into the per-row flags; only rows whose flag
+  // actually flips are notified.
+  void _syncSelection() {
+    final apps = _defaults ?? SelectionRepository.apps.value;
+    _selected
+      ..clear()
+      ..addAll(apps.map((app) => app.packageName));
+    _rowSelection.forEach((packageName, notifier) {
+      notifier.value = _selected.contains(packageName);
     });
+    _selectedCount.value = apps.length;
   }
 
-  bool _isSelected(app_data.SocialApp app) => selectedApps.any((a) => a.packageName == app.packageName);
+  ValueNotifier<bool> _selectionOf(String packageName) {
+    return _rowSelection.putIfAbsent(
+      packageName,
+      () => ValueNotifier(_selected.contains(packageName)),
+    );
+  }
 
-  Future<void> _saveSelectedApps() async {
-    if (Platform.isIOS) {
-      return; // Do not save on iOS to avoid crashing on IconData
-    }
-    try {
-      final prefs = await SharedPreferences.getInstance();
-      final appData = selectedApps.map((app) => jsonEncode({
-        'name': app.name,
-        'packageName': app.packageName,
-        'icon': base64Encode(app.icon),
-        'color': app.color.value,
-      })).toList();
-
-      await prefs.setStringList('selected_apps_data', appData);
-    } catch (e) {
-      debugPrint('Error saving apps: $e');
-    }
+  // Typing fast only runs the search once the user pauses.
+  void _onSearchChanged() {
+    _searchDebounce?.cancel();
+    _searchDebounce = Timer(const Duration(milliseconds: 120), _filterApps);
   }
 
-  Future<void> _toggleAppSelection(app_data.SocialApp app) async {
+  void _filterApps() {
+    if (!mounted) return;
+    final result = _searchIndex.search(searchController.text, _lastSearch);
     setState(() {
-      if (_isSelected(app)) {
-        selectedApps.removeWhere((a) => a.packageName == app.packageName);
-      } else {
-        if (selectedApps.length < 8) {
-          selectedApps.add(app);
-          _showHideHelpDialog(app.name);
-        } else {
-          ScaffoldMessenger.of(context).showSnackBar(
-            const SnackBar(content: Text('Maximum 8 apps allowed')),
-          );
-        }
-      }
+      _lastSearch = result;
+      filteredApps = result.apps;
     });
+  }
 
-    await _saveSelectedApps();
+  // Only the toggled row and the counter rebuild; the repository saves in
+  // the background.
+  Future<void> _toggleAppSelection(app_data.SocialApp app) async {
+    // Editing the preselection accepts it as the starting point.
+    unawaited(_confirmDefaults());
+    if (SelectionRepository.remove(app.packageName) != -1) return;
+
+    if (!SelectionRepository.add(app)) {
+      ScaffoldMessenger.of(context).showSnackBar(
+        const SnackBar(content: Text('Maximum 8 apps allowed')),
+      );
+      return;
+    }
+    _showHideHelpDialog(app.name);
+
+    // Rows are listed without icons; the web needs the bytes.
+    if (app.icon == null) {
+      final withIcon = await AppScanner.withIcon(app);
+      if (withIcon.icon != null) SelectionRepository.update(withIcon);
+    }
   }
 
   void _showHideHelpDialog(String appName) {
@@ -161,8 +235,8 @@ class _AddAppsScreenState extends State<AddAppsScreen> {
         children: [
           // Background with gradient effects
           Positioned.fill(
-            child: Image.asset(
-              'assets/splash/image 1-1.png',
+            child: AssetImageView(
+              Assets.splashImage1,
               fit: BoxFit.cover,
               alignment: Alignment.center,
             ),
@@ -200,7 +274,7 @@ class _AddAppsScreenState extends State<AddAppsScreen> {
                     children: [
                       IconButton(
                         icon: const Icon(Icons.arrow_back, color: Colors.white),
-                        onPressed: () => Navigator.pop(context, selectedApps),
+                        onPressed: () => Navigator.pop(context),
                       ),
                       const Text(
                         'Select Apps',
@@ -212,7 +286,10 @@ class _AddAppsScreenState extends State<AddAppsScreen> {
                       ),
                       IconButton(
                         icon: const Icon(Icons.check, color: Colors.white),
-                        onPressed: () => Navigator.pop(context, selectedApps),
+                        onPressed: () {
+                          unawaited(_confirmDefaults());
+                          Navigator.pop(context);
+                        },
                       ),
                     ],
                   ),
@@ -242,11 +319,14 @@ class _AddAppsScreenState extends State<AddAppsScreen> {
                 // Selected apps count
                 Padding(
                   padding: const EdgeInsets.symmetric(horizontal: 16.0),
-                  child: Text(
-                    '${selectedApps.length} of ${allSocialApps.length} selected',
-                    style: TextStyle(
-                      color: Colors.white.withOpacity(0.7),
-                      fontSize: 14,
+                  child: ValueListenableBuilder<int>(
+                    valueListenable: _selectedCount,
+                    builder: (context, count, _) => Text(
+                      '$count of ${allSocialApps.length} selected',
+                      style: TextStyle(
+                        color: Colors.white.withOpacity(0.7),
+                        fontSize: 14,
+                      ),
                     ),
                   ),
                 ),
@@ -268,51 +348,15 @@ class _AddAppsScreenState extends State<AddAppsScreen> {
                       : ListView.builder(
                     padding: const EdgeInsets.all(16.0),
                     itemCount: filteredApps.length,
+                    itemExtent: _AppRow.extent,
+                    cacheExtent: _AppRow.extent * 4,
                     itemBuilder: (context, index) {
                       final app = filteredApps[index];
-                      final isSelected = _isSelected(app);
-
-                      return Card(
-                        color: Colors.white.withOpacity(0.1),
-                        margin: const EdgeInsets.only(bottom: 12),
-                        shape: RoundedRectangleBorder(
-                          borderRadius: BorderRadius.circular(12),
-                          side: BorderSide(
-                            color: isSelected ? app.color : Colors.transparent,
-                            width: 2,
-                          ),
-                        ),
-                        child: ListTile(
-                          leading: Container(
-                            width: 40,
-                            height: 40,
-                            decoration: BoxDecoration(
-                              color: app.color.withOpacity(0.2),
-                              shape: BoxShape.circle,
-                              border: Border.all(
-                                color: app.color,
-                                width: 2,
-                              ),
-                            ),
-                            child: Platform.isIOS
-                                ? Icon(app.icon as IconData, color: Colors.white)
-                                : Image.memory(app.icon as Uint8List),
-                          ),
-                          title: Text(
-                            app.name,
-                            style: const TextStyle(
-                              color: Colors.white,
-                              fontWeight: FontWeight.w500,
-                            ),
-                          ),
-                          trailing: Checkbox(
-                            value: isSelected,
-                            onChanged: (value) => _toggleAppSelection(app),
-                            activeColor: app.color,
-                            shape: const CircleBorder(),
-                          ),
-                          onTap: () => _toggleAppSelection(app),
-                        ),
+                      return _AppRow(
+                        key: ValueKey(app.packageName),
+                        app: app,
+                        selected: _selectionOf(app.packageName),
+                        onToggle: () => _toggleAppSelection(app),
                       );
                     },
                   ),
@@ -324,4 +368,140 @@ class _AddAppsScreenState extends State<AddAppsScreen> {
       ),
     );
   }
-}
\ No newline at end of file
+}
+
+/// One picker row. Rebuilds only when its own selection flag changes.
+///
+/// Icons are fetched when the row is built, i.e. near the viewport, decoded at
+/// the row's size, and released again once the list disposes the row.
+class _AppRow extends StatefulWidget {
+  static const double iconSize = 36;
+
+  /// Card height plus its bottom margin.
+  static const double extent = 68;
+
+  final app_data.SocialApp app;
+  final ValueListenable<bool> selected;
+  final VoidCallback onToggle;
+
+  const _AppRow({
+    super.key,
+    required this.app,
+    required this.selected,
+    required this.onToggle,
+  });
+
+  @override
+  State<_AppRow> createState() => _AppRowState();
+}
+
+class _AppRowState extends State<_AppRow> {
+  Future<Uint8List?>? _icon;
+  Color? _iconColor;
+  int _iconPx = 0;
+
+  @override
+  void initState() {
+    super.initState();
+    _requestIcon();
+  }
+
+  @override
+  void didUpdateWidget(_AppRow oldWidget) {
+    super.didUpdateWidget(oldWidget);
+    if (oldWidget.app.packageName != widget.app.packageName) {
+      _releaseIcon(oldWidget.app.packageName);
+      _requestIcon();
+    }
+  }
+
+  @override
+  void dispose() {
+    _releaseIcon(widget.app.packageName);
+    super.dispose();
+  }
+
+  void _requestIcon() {
+    final app = widget.app;
+    _iconColor = null;
+    _icon = Platform.isIOS || app.icon != null ? null : AppScanner.loadIcon(app.packageName);
+    _icon?.then((bytes) async {
+      if (bytes == null) return;
+      final color = await IconPalette.colorOf(app.packageName, bytes);
+      if (!mounted || color == null || widget.app.packageName != app.packageName) return;
+      setState(() => _iconColor = color);
+    });
+  }
+
+  void _releaseIcon(String packageName) {
+    if (_icon == null) return;
+    AppScanner.releaseIcon(packageName);
+    if (_iconPx > 0) IconCache.evict(packageName, sizePx: _iconPx);
+  }
+
+  Widget _buildIcon(app_data.SocialApp app) {
+    if (Platform.isIOS) return Icon(app.icon as IconData, color: Colors.white);
+    if (_icon == null) return app.getIconWidget(size: _AppRow.iconSize);
+
+    return FutureBuilder<Uint8List?>(
+      future: _icon,
+      builder: (context, snapshot) =>
+          app.copyWith(icon: snapshot.data).getIconWidget(size: _AppRow.iconSize),
+    );
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    final app = _iconColor == null ? widget.app : widget.app.copyWith(color: _iconColor);
+    _iconPx = (_AppRow.iconSize * MediaQuery.devicePixelRatioOf(context)).round();
+
+    final leading = Container(
+      width: 40,
+      height: 40,
+      decoration: BoxDecoration(
+        color: app.color.withOpacity(0.2),
+        shape: BoxShape.circle,
+        border: Border.all(
+          color: app.color,
+          width: 2,
+        ),
+      ),
+      child: _buildIcon(app),
+    );
+    final title = Text(
+      app.name,
+      maxLines: 1,
+      overflow: TextOverflow.ellipsis,
+      style: const TextStyle(
+        color: Colors.white,
+        fontWeight: FontWeight.w500,
+      ),
+    );
+
+    return ValueListenableBuilder<bool>(
+      valueListenable: widget.selected,
+      builder: (context, isSelected, _) => Card(
+        color: Colors.white.withOpacity(0.1),
+        margin: const EdgeInsets.only(bottom: 12),
+        shape: RoundedRectangleBorder(
+          borderRadius: BorderRadius.circular(12),
+          side: BorderSide(
+            color: isSelected ? app.color : Colors.transparent,
+            width: 2,
+          ),
+        ),
+        child: ListTile(
+          leading: leading,
+          title: title,
+          trailing: Checkbox(
+            value: isSelected,
+            onChanged: (value) => widget.onToggle(),
+            activeColor: app.color,
+            shape: const CircleBorder(),
+          ),
+          onTap: widget.onToggle,
+        ),
+      ),
+    );
+  }
+}
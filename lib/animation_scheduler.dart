@@ -0,0 +1,188 @@
+import 'dart:ui';
+import 'package:flutter/material.dart';
+import 'package:flutter/scheduler.dart';
+import 'device_profile.dart';
+
+/// When animations may run and how often they may draw.
+class AnimationPolicy {
+  /// The app is in the foreground.
+  final bool visible;
+
+  /// The OS asks for less motion (Android "Remove animations", iOS
+  /// "Reduce Motion").
+  final bool reduceMotion;
+
+  /// Battery saver is on.
+  final bool powerSave;
+
+  final DeviceTier tier;
+
+  const AnimationPolicy({
+    required this.visible,
+    required this.reduceMotion,
+    required this.powerSave,
+    required this.tier,
+  });
+
+  /// Decorative motion (backgrounds, particles) only runs when nobody asked
+  /// for less of it.
+  bool get decorativeAllowed => visible && !reduceMotion && !powerSave;
+
+  /// Upper bound on frames per second for anything that animates.
+  double get frameRate {
+    if (powerSave) return 20;
+    return tier == DeviceTier.low ? 30 : 60;
+  }
+
+  @override
+  bool operator ==(Object other) =>
+      other is AnimationPolicy &&
+      other.visible == visible &&
+      other.reduceMotion == reduceMotion &&
+      other.powerSave == powerSave &&
+      other.tier == tier;
+
+  @override
+  int get hashCode => Object.hash(visible, reduceMotion, powerSave, tier);
+}
+
+/// Single place that decides whether animations run.
+///
+/// It combines app lifecycle, the OS reduce-motion setting, battery saver and
+/// the device tier into [policy]. Animated widgets mix in [ScheduledAnimation],
+/// which also tracks whether their route is covered, and get one
+/// [ScheduledAnimation.onScheduleChanged] call whenever they should start,
+/// stop or change rate. Their tickers are throttled to
+/// [AnimationPolicy.frameRate] by [ScheduledAnimation.shouldStep].
+class AnimationScheduler {
+  static final RouteObserver<ModalRoute<void>> routeObserver = RouteObserver();
+
+  static final ValueNotifier<AnimationPolicy> policy = ValueNotifier(_current());
+
+  static _SchedulerObserver? _observer;
+
+  /// Starts following lifecycle, accessibility and power changes.
+  static void ensureInitialized() {
+    if (_observer != null) return;
+    _observer = _SchedulerObserver();
+    WidgetsBinding.instance.addObserver(_observer!);
+    DeviceProfile.powerSave.addListener(_update);
+    DeviceProfile.load().then((_) => _update());
+    _update();
+  }
+
+  static void _update() => policy.value = _current();
+
+  static AnimationPolicy _current() {
+    final state = SchedulerBinding.instance.lifecycleState;
+    return AnimationPolicy(
+      visible: state == null || state == AppLifecycleState.resumed,
+      reduceMotion: PlatformDispatcher.instance.accessibilityFeatures.disableAnimations,
+      powerSave: DeviceProfile.powerSave.value,
+      tier: DeviceProfile.tier,
+    );
+  }
+}
+
+class _SchedulerObserver with WidgetsBindingObserver {
+  @override
+  void didChangeAppLifecycleState(AppLifecycleState state) => AnimationScheduler._update();
+
+  @override
+  void didChangeAccessibilityFeatures() => AnimationScheduler._update();
+}
+
+/// Registers a [State] that animates with the [AnimationScheduler].
+///
+/// [isAnimating] is true while the app is visible, the widget's route is on
+/// top and, for [decorative] animations, the user has not asked for less
+/// motion or saved battery. Implement [onScheduleChanged] to start and stop
+/// tickers, and call [shouldStep] from a ticker to keep to the frame cap.
+mixin ScheduledAnimation<T extends StatefulWidget> on State<T> implements RouteAware {
+  ModalRoute<void>? _route;
+  bool _routeVisible = true;
+  bool _wasAnimating = false;
+  double _wasFrameRate = 0;
+  Duration _lastStep = Duration.zero;
+
+  /// Decorative animations stop for reduce-motion and battery saver;
+  /// functional ones (e.g. splash transitions) only pause when hidden.
+  bool get decorative => true;
+
+  bool get isAnimating {
+    final policy = AnimationScheduler.policy.value;
+    final allowed = decorative ? policy.decorativeAllowed : policy.visible;
+    return allowed && _routeVisible;
+  }
+
+  double get frameRate => AnimationScheduler.policy.value.frameRate;
+
+  /// Called once after [initState] and whenever [isAnimating] or [frameRate]
+  /// changes.
+  void onScheduleChanged();
+
+  /// True when a ticker at [elapsed] is due for another step under the frame
+  /// cap. Small timing jitter still counts as due, so a 60 fps cap on a 60 Hz
+  /// screen steps every frame.
+  bool shouldStep(Duration elapsed) {
+    final interval = 1e6 / frameRate;
+    if (elapsed < _lastStep) _lastStep = Duration.zero; // ticker restarted
+    if ((elapsed - _lastStep).inMicroseconds < interval * 0.8) return false;
+    _lastStep = elapsed;
+    return true;
+  }
+
+  @override
+  void initState() {
+    super.initState();
+    AnimationScheduler.ensureInitialized();
+    AnimationScheduler.policy.addListener(_notify);
+    WidgetsBinding.instance.addPostFrameCallback((_) {
+      if (mounted) _notify(force: true);
+    });
+  }
+
+  @override
+  void didChangeDependencies() {
+    super.didChangeDependencies();
+    final route = ModalRoute.of(context);
+    if (route != _route && route is PageRoute) {
+      AnimationScheduler.routeObserver.unsubscribe(this);
+      AnimationScheduler.routeObserver.subscribe(this, route);
+      _route = route;
+    }
+  }
+
+  @override
+  void dispose() {
+    AnimationScheduler.routeObserver.unsubscribe(this);
+    AnimationScheduler.policy.removeListener(_notify);
+    super.dispose();
+  }
+
+  void _notify({bool force = false}) {
+    final animating = isAnimating;
+    final rate = frameRate;
+    if (!force && animating == _wasAnimating && rate == _wasFrameRate) return;
+    _wasAnimating = animating;
+    _wasFrameRate = rate;
+    onScheduleChanged();
+  }
+
+  void _setRouteVisible(bool visible) {
+    _routeVisible = visible;
+    _notify();
+  }
+
+  @override
+  void didPushNext() => _setRouteVisible(false);
+
+  @override
+  void didPopNext() => _setRouteVisible(true);
+
+  @override
+  void didPush() {}
+
+  @override
+  void didPop() {}
+}
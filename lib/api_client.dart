@@ -0,0 +1,142 @@
+import 'dart:async';
+import 'dart:convert';
+import 'package:flutter/foundation.dart';
+import 'package:http/http.dart' as http;
+
+/// Backend every [ApiClient] talks to unless given another one.
+///
+/// Point a build at another server with
+/// `--dart-define=API_BASE_URL=http://10.0.2.2:3000`.
+const String baseUrl = String.fromEnvironment(
+  'API_BASE_URL',
+  defaultValue: 'https://my-backend-production-d82c.up.railway.app',
+);
+
+/// Shared HTTP client for the backend.
+///
+/// One [http.Client] is reused for every call so connections stay alive
+/// between screens, and every request has a timeout. GETs are cached by path:
+/// within [ttl] the cached body is returned without touching the network;
+/// after that it is still returned at once while a conditional request
+/// (`If-None-Match`) revalidates it in the background. Identical GETs that
+/// are in flight at the same time share a single request.
+class ApiClient {
+  static ApiClient instance = ApiClient();
+
+  final http.Client _client;
+  final String _baseUrl;
+  final Duration timeout;
+  final Duration ttl;
+
+  final Map<String, _CachedResponse> _cache = {};
+  final Map<String, Future<http.Response>> _inFlight = {};
+
+  ApiClient({
+    http.Client? client,
+    String? baseUrl,
+    this.timeout = const Duration(seconds: 15),
+    this.ttl = const Duration(minutes: 5),
+  })  : _client = client ?? http.Client(),
+        _baseUrl = baseUrl ?? _defaultBaseUrl;
+
+  static const String _defaultBaseUrl = baseUrl;
+
+  /// Replaces [instance], e.g. to send every screen to a staging server or
+  /// to the in-process `FakeBackend`. The old client is closed and its
+  /// cache dropped.
+  static void configure({String? baseUrl, http.Client? client}) {
+    instance.close();
+    instance = ApiClient(baseUrl: baseUrl, client: client);
+  }
+
+  static const Map<String, String> _jsonHeaders = {'Content-Type': 'application/json'};
+
+  Uri _uri(String path) => Uri.parse('$_baseUrl$path');
+
+  /// GETs [path], serving from cache when possible.
+  ///
+  /// When a stale cached response is returned, [onRevalidated] is called
+  /// later with the fresh response if the server reports a change.
+  Future<http.Response> get(
+    String path, {
+    bool forceRefresh = false,
+    void Function(http.Response response)? onRevalidated,
+  }) async {
+    final cached = _cache[path];
+    if (cached != null && !forceRefresh) {
+      if (cached.age < ttl) return cached.response;
+
+      _fetch(path).then((fresh) {
+        if (fresh.statusCode == 200 && fresh.body != cached.response.body) {
+          onRevalidated?.call(fresh);
+        }
+      }).catchError((e) {
+        debugPrint('Revalidating $path failed: $e');
+      });
+      return cached.response;
+    }
+    return _fetch(path);
+  }
+
+  Future<http.Response> _fetch(String path) {
+    return _inFlight[path] ??= _send(path).whenComplete(() => _inFlight.remove(path));
+  }
+
+  Future<http.Response> _send(String path) async {
+    final cached = _cache[path];
+    final headers = {
+      ..._jsonHeaders,
+      if (cached?.etag != null) 'If-None-Match': cached!.etag!,
+    };
+
+    final response = await _client.get(_uri(path), headers: headers).timeout(timeout);
+
+    if (response.statusCode == 304 && cached != null) {
+      _cache[path] = cached.refreshed();
+      return cached.response;
+    }
+    if (response.statusCode == 200) {
+      _cache[path] = _CachedResponse(response, response.headers['etag']);
+    }
+    return response;
+  }
+
+  Future<http.Response> post(String path, Object? body) {
+    return _client
+        .post(_uri(path), headers: _jsonHeaders, body: jsonEncode(body))
+        .timeout(timeout);
+  }
+
+  Future<http.Response> put(String path, Object? body) async {
+    final response = await _client
+        .put(_uri(path), headers: _jsonHeaders, body: jsonEncode(body))
+        .timeout(timeout);
+    invalidate(path);
+    return response;
+  }
+
+  Future<http.Response> delete(String path) async {
+    final response = await _client.delete(_uri(path), headers: _jsonHeaders).timeout(timeout);
+    invalidate(path);
+    return response;
+  }
+
+  void invalidate(String path) => _cache.remove(path);
+
+  void clearCache() => _cache.clear();
+
+  void close() => _client.close();
+}
+
+class _CachedResponse {
+  final http.Response response;
+  final String? etag;
+  final DateTime fetchedAt;
+
+  _CachedResponse(this.response, this.etag, [DateTime? fetchedAt])
+      : fetchedAt = fetchedAt ?? DateTime.now();
+
+  Duration get age => DateTime.now().difference(fetchedAt);
+
+  _CachedResponse refreshed() => _CachedResponse(response, etag);
+}
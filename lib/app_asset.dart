@@ -0,0 +1,97 @@
+import 'dart:math';
+import 'package:flutter/material.dart';
+
+/// A bundled image and its pixel size, as listed in `assets.dart`.
+///
+/// [provider] decodes the image at the size it is drawn on this screen
+/// instead of its full size, and never larger than the file itself. Use the
+/// same arguments for `precacheImage` as for the widget that shows the
+/// image, so both share one image-cache entry.
+class AppAsset {
+  final String path;
+  final int width;
+  final int height;
+
+  /// Device pixel ratios with their own `2.0x/`, `3.0x/` file.
+  final List<double> variants;
+
+  const AppAsset(this.path, this.width, this.height, {this.variants = const []});
+
+  ImageProvider provider(
+    BuildContext context, {
+    double? width,
+    double? height,
+    BoxFit fit = BoxFit.contain,
+  }) {
+    final image = AssetImage(path);
+    // Variant files are picked by density already; only single files are resized.
+    if (variants.isNotEmpty) return image;
+
+    final ratio = MediaQuery.devicePixelRatioOf(context);
+    final scales = [
+      if (width != null && width.isFinite) width * ratio / this.width,
+      if (height != null && height.isFinite) height * ratio / this.height,
+    ];
+    if (scales.isEmpty) return image;
+
+    final scale = fit == BoxFit.cover ? scales.reduce(max) : scales.reduce(min);
+    if (scale >= 1) return image;
+    return ResizeImage(
+      image,
+      width: max(1, (this.width * scale).ceil()),
+      height: max(1, (this.height * scale).ceil()),
+    );
+  }
+
+  /// [provider] for an image that covers the whole screen.
+  ImageProvider fullScreen(BuildContext context) {
+    final size = MediaQuery.sizeOf(context);
+    return provider(context, width: size.width, height: size.height, fit: BoxFit.cover);
+  }
+}
+
+/// `Image.asset` for an [AppAsset], decoded at its laid-out size.
+///
+/// Without [width] or [height] the image takes the incoming constraints,
+/// which suits full-screen backgrounds.
+class AssetImageView extends StatelessWidget {
+  final AppAsset asset;
+  final double? width;
+  final double? height;
+  final BoxFit? fit;
+  final AlignmentGeometry alignment;
+  final Animation<double>? opacity;
+  final FilterQuality filterQuality;
+  final ImageErrorWidgetBuilder? errorBuilder;
+
+  const AssetImageView(
+    this.asset, {
+    super.key,
+    this.width,
+    this.height,
+    this.fit,
+    this.alignment = Alignment.center,
+    this.opacity,
+    this.filterQuality = FilterQuality.medium,
+    this.errorBuilder,
+  });
+
+  @override
+  Widget build(BuildContext context) {
+    Widget image(double? w, double? h) => Image(
+          image: asset.provider(context, width: w, height: h, fit: fit ?? BoxFit.contain),
+          width: width,
+          height: height,
+          fit: fit,
+          alignment: alignment,
+          opacity: opacity,
+          filterQuality: filterQuality,
+          errorBuilder: errorBuilder,
+        );
+
+    if (width != null || height != null) return image(width, height);
+    return LayoutBuilder(
+      builder: (context, constraints) => image(constraints.maxWidth, constraints.maxHeight),
+    );
+  }
+}
@@ -1,6 +1,6 @@
 import 'package:flutter/material.dart';
 import 'package:font_awesome_flutter/font_awesome_flutter.dart';
-import 'dart:typed_data'; // Add this import for Uint8List
+import 'widgets/app_icon.dart';
 
 class SocialApp {
   final String name;
@@ -21,31 +21,35 @@ class SocialApp {
     this.category = 'Social',
   });
 
+  SocialApp copyWith({dynamic icon, Color? color}) {
+    return SocialApp(
+      name: name,
+      icon: icon ?? this.icon,
+      color: color ?? this.color,
+      packageName: packageName,
+      launchUrls: launchUrls,
+      fallbackUrl: fallbackUrl,
+      category: category,
+    );
+  }
+
   Widget getIconWidget({double size = 24.0, Color? iconColor}) {
-    if (icon is IconData) {
-      return Icon(icon as IconData, size: size, color: iconColor);
-    } else if (icon is Uint8List) {
-      return Image.memory(
-        icon as Uint8List,
-        width: size,
-        height: size,
-        errorBuilder: (context, error, stackTrace) =>
-            Icon(Icons.error, size: size, color: Colors.red),
-      );
-    } else if (icon is List<int>) {
-      // Convert List<int> to Uint8List if needed
-      return Image.memory(
-        Uint8List.fromList(icon as List<int>),
-        width: size,
-        height: size,
-        errorBuilder: (context, error, stackTrace) =>
-            Icon(Icons.error, size: size, color: Colors.red),
-      );
-    }
-    return Icon(Icons.error, size: size, color: Colors.red);
+    return AppIcon(
+      packageName: packageName,
+      icon: icon,
+      size: size,
+      iconColor: iconColor,
+    );
   }
 }
 
+/// Derives a stable glow color for apps that don't ship a brand color.
+Color colorFromName(String input) {
+  final hash = input.codeUnits.fold(0, (prev, el) => prev + el);
+  final hue = (hash * 37) % 360;
+  return HSLColor.fromAHSL(1.0, hue.toDouble(), 0.6, 0.5).toColor();
+}
+
 // Your allSocialApps list remains the same as before
 final List<SocialApp> allSocialApps = [
   SocialApp(
@@ -1,42 +1,142 @@
+import 'dart:async';
 import 'package:flutter/cupertino.dart';
 import 'package:flutter/services.dart';
 
+/// Hides and shows apps through the native `app_hider` channel.
+///
+/// Every call is batched: the list methods send all packages in one channel
+/// call, and single-package queries made in the same frame are merged into
+/// one `getHiddenStatus` request. Results are cached in [status] and kept
+/// current by the `app_hider/events` stream, so the web can read
+/// [isHiddenCached] while building instead of waiting on the platform.
 class AppHider {
   static const MethodChannel _channel = MethodChannel('app_hider');
+  static const EventChannel _events = EventChannel('app_hider/events');
+
+  /// Last known hidden state per package.
+  static final ValueNotifier<Map<String, bool>> status = ValueNotifier(const {});
+
+  static StreamSubscription<dynamic>? _eventSub;
+  static final Map<String, Completer<bool>> _queued = {};
+  static bool _flushScheduled = false;
+
+  /// Starts listening for native hidden-state changes. Safe to call repeatedly.
+  static void listen() {
+    _eventSub ??= _events.receiveBroadcastStream().listen(
+      (event) {
+        if (event is Map) _merge(event.cast<String, bool>());
+      },
+      onError: (e) => debugPrint('App hider events failed: $e'),
+    );
+  }
+
+  static bool? isHiddenCached(String packageName) => status.value[packageName];
 
   static Future<bool> hideApp(String packageName) async {
+    final result = await hideApps([packageName]);
+    return result[packageName] ?? false;
+  }
+
+  static Future<bool> showApp(String packageName) async {
+    final result = await showApps([packageName]);
+    return result[packageName] ?? false;
+  }
+
+  /// Queries one package; concurrent calls are sent as a single batch.
+  static Future<bool> isAppHidden(String packageName) {
+    final cached = isHiddenCached(packageName);
+    if (cached != null) return Future.value(cached);
+
+    final completer = _queued.putIfAbsent(packageName, () => Completer<bool>());
+    if (!_flushScheduled) {
+      _flushScheduled = true;
+      scheduleMicrotask(_flushQueued);
+    }
+    return completer.future;
+  }
+
+  /// Hides [packageNames]; the map says which ones ended up hidden.
+  static Future<Map<String, bool>> hideApps(List<String> packageNames) =>
+      _setHidden(packageNames, true);
+
+  /// Shows [packageNames]; the map says which ones ended up visible.
+  static Future<Map<String, bool>> showApps(List<String> packageNames) =>
+      _setHidden(packageNames, false);
+
+  /// Fetches the hidden state of [packageNames] in one call and caches it.
+  static Future<Map<String, bool>> refreshStatus(List<String> packageNames) async {
+    if (packageNames.isEmpty) return const {};
     try {
-      final result = await _channel.invokeMethod<bool>('hideApp', {
-        'packageName': packageName,
+      final result = await _channel.invokeMapMethod<String, bool>('getHiddenStatus', {
+        'packageNames': packageNames,
       });
-      return result ?? false;
+      final statuses = result ?? const <String, bool>{};
+      _merge(statuses);
+      return statuses;
     } on PlatformException catch (e) {
-      debugPrint('Failed to hide app: ${e.message}');
-      return false;
+      debugPrint('Failed to check app status: ${e.message}');
+      return const {};
+    } on MissingPluginException {
+      return const {};
     }
   }
 
-  static Future<bool> showApp(String packageName) async {
+  /// Whether the device lets this app hide others (device or profile owner).
+  static Future<bool> canHide() async {
     try {
-      final result = await _channel.invokeMethod<bool>('showApp', {
-        'packageName': packageName,
-      });
-      return result ?? false;
+      return await _channel.invokeMethod<bool>('canHide') ?? false;
     } on PlatformException catch (e) {
-      debugPrint('Failed to show app: ${e.message}');
+      debugPrint('Failed to check hide permission: ${e.message}');
+      return false;
+    } on MissingPluginException {
       return false;
     }
   }
 
-  static Future<bool> isAppHidden(String packageName) async {
+  static Future<Map<String, bool>> _setHidden(List<String> packageNames, bool hidden) async {
+    if (packageNames.isEmpty) return const {};
     try {
-      final result = await _channel.invokeMethod<bool>('isAppHidden', {
-        'packageName': packageName,
+      final result = await _channel.invokeMapMethod<String, bool>('setHidden', {
+        'packageNames': packageNames,
+        'hidden': hidden,
+      });
+      final outcome = result ?? const <String, bool>{};
+      _merge({
+        for (final entry in outcome.entries)
+          if (entry.value) entry.key: hidden,
       });
-      return result ?? false;
+      return outcome;
     } on PlatformException catch (e) {
-      debugPrint('Failed to check app status: ${e.message}');
-      return false;
+      debugPrint('Failed to ${hidden ? 'hide' : 'show'} apps: ${e.message}');
+      return {for (final name in packageNames) name: false};
+    } on MissingPluginException {
+      return {for (final name in packageNames) name: false};
     }
   }
-}
\ No newline at end of file
+
+  static Future<void> _flushQueued() async {
+    _flushScheduled = false;
+    final batch = Map.of(_queued);
+    _queued.clear();
+
+    var statuses = const <String, bool>{};
+    try {
+      statuses = await refreshStatus(batch.keys.toList());
+    } catch (e) {
+      debugPrint('Failed to check app status: $e');
+    } finally {
+      // Every caller gets an answer, even when the channel misbehaves.
+      batch.forEach((name, completer) => completer.complete(statuses[name] ?? false));
+    }
+  }
+
+  static void _merge(Map<String, bool> changes) {
+    if (changes.isEmpty) return;
+    final current = status.value;
+    if (changes.entries.every((e) => current[e.key] == e.value)) return;
+    status.value = Map.unmodifiable({...current, ...changes});
+  }
+
+  /// Drops cached statuses, e.g. after the selected apps change.
+  static void clearCache() => status.value = const {};
+}
@@ -0,0 +1,278 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:io';
+import 'dart:typed_data';
+import 'package:flutter/material.dart';
+import 'package:flutter/services.dart';
+import 'package:installed_apps/installed_apps.dart';
+import 'package:path_provider/path_provider.dart';
+import 'app_data.dart';
+import 'app_store.dart';
+
+/// On-device index of installed apps, kept between visits to Add Apps.
+///
+/// The index stores each package's name, color and version plus, once a row
+/// has shown it, its icon. Cold opens render straight from it; [sync] then
+/// asks the native side for a cheap package/version snapshot and only
+/// refetches packages that were added or updated since.
+class InstalledAppIndex {
+  static const MethodChannel _channel = MethodChannel('spider/packages');
+
+  static Directory? _root;
+  static Map<String, _IndexedPackage>? _entries;
+
+  /// Returns the indexed apps, or an empty list if nothing is indexed yet.
+  static Future<List<SocialApp>> load() async {
+    final entries = await _load();
+    return entries.values.where((e) => e.listed).map((e) => e.toApp()).toList();
+  }
+
+  /// Builds the index from a full scan, using [apps] for names and colors.
+  static Future<void> seed(List<SocialApp> apps) async {
+    final snapshot = await _snapshot();
+    if (snapshot == null) return;
+
+    final byPackage = {for (final app in apps) app.packageName: app};
+    final entries = <String, _IndexedPackage>{};
+
+    for (final package in snapshot.values) {
+      final app = byPackage[package.packageName];
+      entries[package.packageName] = _IndexedPackage(
+        packageName: package.packageName,
+        name: app?.name ?? '',
+        color: app?.color.value ?? 0,
+        versionCode: package.versionCode,
+        lastUpdateTime: package.lastUpdateTime,
+        listed: app != null,
+      );
+    }
+
+    _entries = entries;
+    await _persist(entries);
+  }
+
+  /// Reconciles the index with the packages currently installed.
+  static Future<AppIndexDelta> sync() async {
+    final entries = await _load();
+    final snapshot = await _snapshot();
+    if (snapshot == null || entries.isEmpty) return const AppIndexDelta();
+
+    final removed = entries.keys.where((p) => !snapshot.containsKey(p)).toList();
+    final changed = snapshot.values.where((p) {
+      final entry = entries[p.packageName];
+      return entry == null ||
+          entry.versionCode != p.versionCode ||
+          entry.lastUpdateTime != p.lastUpdateTime;
+    }).toList();
+
+    if (removed.isEmpty && changed.isEmpty) return const AppIndexDelta();
+
+    final root = await _directory();
+    for (final packageName in removed) {
+      entries.remove(packageName);
+      await _deleteIcon(root, packageName);
+    }
+
+    final added = <SocialApp>[];
+    final updated = <SocialApp>[];
+    for (final package in changed) {
+      final previous = entries[package.packageName];
+      await _deleteIcon(root, package.packageName);
+
+      final app = await _fetch(package.packageName);
+      // An update keeps the package where it was: one the seed left out of
+      // the list must not surface in search results the list never shows.
+      final listed = app != null && (previous?.listed ?? true);
+      entries[package.packageName] = _IndexedPackage(
+        packageName: package.packageName,
+        name: app?.name ?? '',
+        color: app?.color.value ?? 0,
+        versionCode: package.versionCode,
+        lastUpdateTime: package.lastUpdateTime,
+        listed: listed,
+      );
+      if (!listed) continue;
+
+      await writeIcon(app!.packageName, app.icon);
+      (previous == null ? added : updated).add(app);
+    }
+
+    await _persist(entries);
+    return AppIndexDelta(added: added, updated: updated, removed: removed);
+  }
+
+  /// Returns the cached icon of [packageName], if one was stored.
+  static Future<Uint8List?> readIcon(String packageName) async {
+    final file = File(_iconPath(await _directory(), packageName));
+    return await file.exists() ? file.readAsBytes() : null;
+  }
+
+  /// Caches [icon] for an indexed package so later visits skip the fetch.
+  static Future<void> writeIcon(String packageName, Uint8List? icon) async {
+    final entries = await _load();
+    if (icon == null || !entries.containsKey(packageName)) return;
+
+    try {
+      await File(_iconPath(await _directory(), packageName)).writeAsBytes(icon);
+    } catch (e) {
+      debugPrint('Error caching icon for $packageName: $e');
+    }
+  }
+
+  static Future<SocialApp?> _fetch(String packageName) async {
+    try {
+      final info = await InstalledApps.getAppInfo(packageName);
+      if (info != null) {
+        return SocialApp(
+          name: info.name,
+          icon: info.icon,
+          color: colorFromName(info.name),
+          packageName: info.packageName,
+        );
+      }
+    } catch (e) {
+      debugPrint('Error fetching $packageName: $e');
+    }
+    return null;
+  }
+
+  static Future<Map<String, _PackageVersion>?> _snapshot() async {
+    if (!Platform.isAndroid) return null;
+    try {
+      final result = await _channel.invokeListMethod<Map>('getPackageSnapshot');
+      return {
+        for (final item in result ?? const <Map>[])
+          item['packageName'] as String: _PackageVersion(
+            item['packageName'] as String,
+            (item['versionCode'] as num).toInt(),
+            (item['lastUpdateTime'] as num).toInt(),
+          ),
+      };
+    } on PlatformException catch (e) {
+      debugPrint('Failed to read package snapshot: ${e.message}');
+      return null;
+    }
+  }
+
+  static Future<Map<String, _IndexedPackage>> _load() async {
+    if (_entries != null) return _entries!;
+
+    try {
+      final file = File('${(await _directory()).path}/index.json');
+      if (await file.exists()) {
+        final data = jsonDecode(await file.readAsString()) as List;
+        return _entries = {
+          for (final item in data.cast<Map<String, dynamic>>())
+            item['packageName'] as String: _IndexedPackage.fromJson(item),
+        };
+      }
+    } catch (e) {
+      debugPrint('Error reading app index: $e');
+    }
+    return _entries = {};
+  }
+
+  /// Rough in-memory size of the loaded index, 0 when it is not loaded.
+  static int get approximateBytes {
+    final entries = _entries;
+    if (entries == null) return 0;
+    return entries.values.fold(0, (sum, e) => sum + 96 + 2 * (e.packageName.length + e.name.length));
+  }
+
+  /// Drops the in-memory index; the next call rereads `index.json`.
+  static void release() => _entries = null;
+
+  // Takes the map explicitly, so a release() mid-sync cannot lose it.
+  static Future<void> _persist(Map<String, _IndexedPackage> entries) async {
+    final root = await _directory();
+    final tmp = File('${root.path}/index.json.tmp');
+    final data = entries.values.map((e) => e.toJson()).toList();
+    await tmp.writeAsString(jsonEncode(data), flush: true);
+    await tmp.rename('${root.path}/index.json');
+  }
+
+  static Future<void> _deleteIcon(Directory root, String packageName) async {
+    final file = File(_iconPath(root, packageName));
+    if (await file.exists()) await file.delete();
+  }
+
+  static Future<Directory> _directory() async {
+    if (_root != null) return _root!;
+    final support = await getApplicationSupportDirectory();
+    final root = Directory('${support.path}/app_index');
+    await Directory('${root.path}/icons').create(recursive: true);
+    return _root = root;
+  }
+
+  static String _iconPath(Directory root, String packageName) =>
+      '${root.path}/icons/${SelectedAppsStore.iconFileName(packageName)}';
+}
+
+/// What changed on the device since the index was last synced.
+class AppIndexDelta {
+  final List<SocialApp> added;
+  final List<SocialApp> updated;
+  final List<String> removed;
+
+  const AppIndexDelta({
+    this.added = const [],
+    this.updated = const [],
+    this.removed = const [],
+  });
+
+  bool get isEmpty => added.isEmpty && updated.isEmpty && removed.isEmpty;
+}
+
+class _PackageVersion {
+  final String packageName;
+  final int versionCode;
+  final int lastUpdateTime;
+
+  _PackageVersion(this.packageName, this.versionCode, this.lastUpdateTime);
+}
+
+class _IndexedPackage {
+  final String packageName;
+  final String name;
+  final int color;
+  final int versionCode;
+  final int lastUpdateTime;
+
+  /// False for packages the scanner skips; they are kept so they are not
+  /// refetched on every sync.
+  final bool listed;
+
+  _IndexedPackage({
+    required this.packageName,
+    required this.name,
+    required this.color,
+    required this.versionCode,
+    required this.lastUpdateTime,
+    required this.listed,
+  });
+
+  factory _IndexedPackage.fromJson(Map<String, dynamic> json) => _IndexedPackage(
+        packageName: json['packageName'],
+        name: json['name'],
+        color: json['color'],
+        versionCode: json['versionCode'],
+        lastUpdateTime: json['lastUpdateTime'],
+        listed: json['listed'] ?? true,
+      );
+
+  Map<String, dynamic> toJson() => {
+        'packageName': packageName,
+        'name': name,
+        'color': color,
+        'versionCode': versionCode,
+        'lastUpdateTime': lastUpdateTime,
+        'listed': listed,
+      };
+
+  SocialApp toApp() => SocialApp(
+        name: name,
+        icon: null,
+        color: Color(color),
+        packageName: packageName,
+      );
+}
@@ -0,0 +1,197 @@
+import 'dart:async';
+import 'dart:io';
+import 'package:flutter/material.dart';
+import 'package:flutter/services.dart';
+import 'package:installed_apps/installed_apps.dart';
+import 'package:url_launcher/url_launcher.dart';
+import 'app_data.dart';
+import 'usage_stats.dart';
+
+/// Launches web apps with everything resolved ahead of the tap.
+///
+/// [prepare] runs when the web loads. On iOS it probes `launchUrls` once and
+/// keeps the first scheme that opens. On Android it asks the native side to
+/// resolve and cache each launch intent. A tap then costs one platform call.
+/// The time from [launch] to the app going to the background is kept per
+/// package in [stats], and every successful launch is recorded in
+/// [UsageStats].
+class AppLauncher {
+  static const MethodChannel _channel = MethodChannel('spider/packages');
+
+  static final Map<String, _LaunchTarget> _targets = {};
+  static final Map<String, Future<_LaunchTarget>> _resolving = {};
+  static final Map<String, LaunchStats> stats = {};
+
+  static final _LifecycleWatcher _watcher = _LifecycleWatcher();
+  static String? _pendingPackage;
+  static Stopwatch? _pendingClock;
+
+  /// Resolves launch targets for [apps] that are not resolved yet.
+  static Future<void> prepare(List<SocialApp> apps) async {
+    final pending = apps.where((app) => !_targets.containsKey(app.packageName)).toList();
+    if (pending.isEmpty) return;
+
+    if (Platform.isIOS) {
+      await Future.wait(pending.map(_resolve));
+      return;
+    }
+
+    try {
+      final result = await _channel.invokeMapMethod<String, bool>('resolveLaunchTargets', {
+        'packageNames': pending.map((app) => app.packageName).toList(),
+      });
+      result?.forEach((packageName, launchable) {
+        _targets[packageName] = launchable ? const _LaunchTarget.package() : const _LaunchTarget.none();
+      });
+    } catch (e) {
+      debugPrint('Error resolving launch targets: $e');
+    }
+  }
+
+  /// Forgets resolved targets, e.g. after apps were installed or removed.
+  static void invalidate([String? packageName]) {
+    if (packageName == null) {
+      _targets.clear();
+    } else {
+      _targets.remove(packageName);
+    }
+  }
+
+  /// Opens [app]; returns false when nothing could be launched.
+  static Future<bool> launch(SocialApp app) async {
+    final target = _targets[app.packageName] ?? await _resolve(app);
+    _startClock(app.packageName);
+
+    try {
+      final launched = await target.open(app);
+      if (launched) {
+        UsageStats.record(app.packageName);
+      } else {
+        _targets.remove(app.packageName);
+        _pendingPackage = null;
+      }
+      return launched;
+    } catch (e) {
+      debugPrint('Error launching ${app.name}: $e');
+      _targets.remove(app.packageName);
+      _pendingPackage = null;
+      return false;
+    }
+  }
+
+  static Future<_LaunchTarget> _resolve(SocialApp app) {
+    return _resolving[app.packageName] ??= _probe(app).then((target) {
+      _targets[app.packageName] = target;
+      return target;
+    }).whenComplete(() => _resolving.remove(app.packageName));
+  }
+
+  static Future<_LaunchTarget> _probe(SocialApp app) async {
+    if (!Platform.isIOS) return const _LaunchTarget.package();
+
+    for (final url in app.launchUrls ?? const <String>[]) {
+      try {
+        if (await canLaunchUrl(Uri.parse(url))) return _LaunchTarget.url(url);
+      } catch (e) {
+        debugPrint('Error probing $url: $e');
+      }
+    }
+    if (app.fallbackUrl != null) return _LaunchTarget.url(app.fallbackUrl!, external: true);
+    return const _LaunchTarget.none();
+  }
+
+  static void _startClock(String packageName) {
+    _watcher.attach();
+    _pendingPackage = packageName;
+    _pendingClock = Stopwatch()..start();
+  }
+
+  static void _onBackgrounded() {
+    final packageName = _pendingPackage;
+    final clock = _pendingClock;
+    if (packageName == null || clock == null) return;
+    _pendingPackage = null;
+
+    final latency = clock.elapsed;
+    stats.putIfAbsent(packageName, () => LaunchStats()).add(latency);
+    debugPrint('Launch $packageName: ${latency.inMilliseconds} ms');
+  }
+}
+
+/// Tap-to-foreground latencies recorded for one package.
+class LaunchStats {
+  int count = 0;
+  Duration last = Duration.zero;
+  Duration slowest = Duration.zero;
+  Duration _total = Duration.zero;
+
+  Duration get average => count == 0 ? Duration.zero : _total ~/ count;
+
+  void add(Duration latency) {
+    count++;
+    last = latency;
+    _total += latency;
+    if (latency > slowest) slowest = latency;
+  }
+
+  Map<String, int> toJson() => {
+        'count': count,
+        'lastMs': last.inMilliseconds,
+        'averageMs': average.inMilliseconds,
+        'slowestMs': slowest.inMilliseconds,
+      };
+}
+
+class _LaunchTarget {
+  final String? url;
+  final bool external;
+  final bool available;
+
+  const _LaunchTarget.package()
+      : url = null,
+        external = false,
+        available = true;
+
+  const _LaunchTarget.url(String this.url, {this.external = false}) : available = true;
+
+  const _LaunchTarget.none()
+      : url = null,
+        external = false,
+        available = false;
+
+  Future<bool> open(SocialApp app) async {
+    if (!available) return false;
+    if (url != null) {
+      return launchUrl(
+        Uri.parse(url!),
+        mode: external ? LaunchMode.externalApplication : LaunchMode.platformDefault,
+      );
+    }
+    try {
+      final launched = await AppLauncher._channel.invokeMethod<bool>('launchPackage', {
+        'packageName': app.packageName,
+      });
+      return launched ?? false;
+    } on MissingPluginException {
+      return await InstalledApps.startApp(app.packageName) ?? false;
+    }
+  }
+}
+
+/// Ends the launch clock when the launched app takes the foreground.
+class _LifecycleWatcher with WidgetsBindingObserver {
+  bool _attached = false;
+
+  void attach() {
+    if (_attached) return;
+    _attached = true;
+    WidgetsBinding.instance.addObserver(this);
+  }
+
+  @override
+  void didChangeAppLifecycleState(AppLifecycleState state) {
+    if (state == AppLifecycleState.inactive || state == AppLifecycleState.paused) {
+      AppLauncher._onBackgrounded();
+    }
+  }
+}
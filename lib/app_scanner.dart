@@ -0,0 +1,167 @@
+import 'dart:async';
+import 'dart:collection';
+import 'dart:io';
+import 'dart:math';
+import 'dart:typed_data';
+import 'package:flutter/foundation.dart';
+import 'package:installed_apps/installed_apps.dart';
+import 'app_data.dart';
+import 'app_index.dart';
+import 'icon_cache.dart';
+import 'icon_palette.dart';
+
+/// Scans installed apps without blocking on icons.
+///
+/// [scan] lists packages by name only and emits them as [SocialApp]s one
+/// page at a time, so the first rows can render while the rest are still
+/// being prepared. Icons are fetched separately
+/// through [loadIcon], which the list calls only for rows it builds.
+///
+/// Once a scan has run, later scans are served from [InstalledAppIndex] and
+/// [sync] picks up whatever changed on the device in the meantime.
+///
+/// Fetched icon bytes are kept in memory up to [maxIconBytes], least
+/// recently used first out; anything dropped is reread from the index.
+class AppScanner {
+  static const int defaultPageSize = 40;
+
+  static int maxIconBytes = 4 * 1024 * 1024;
+
+  static final Map<String, Future<Uint8List?>> _icons = {};
+  // Sizes of the fetched icons in [_icons], in least-recently-used order.
+  static final LinkedHashMap<String, int> _iconSizes = LinkedHashMap();
+  static int _iconBytes = 0;
+  static Future<Uint8List?> Function(String packageName) _fetch = _fetchIcon;
+
+  static int get iconBytes => _iconBytes;
+  static int get iconCount => _iconSizes.length;
+
+  /// Emits installed apps in pages of [pageSize]. Apps have no icon yet.
+  static Stream<List<SocialApp>> scan({int pageSize = defaultPageSize}) async* {
+    if (Platform.isIOS) {
+      yield allSocialApps;
+      return;
+    }
+
+    final indexed = await InstalledAppIndex.load();
+    if (indexed.isNotEmpty) {
+      for (var start = 0; start < indexed.length; start += pageSize) {
+        yield indexed.sublist(start, min(start + pageSize, indexed.length));
+      }
+      return;
+    }
+
+    final infos = await InstalledApps.getInstalledApps(true, false);
+    // Mapping is a hash of each name; cheaper inline than on an isolate.
+    final scanned = [
+      for (final info in infos)
+        SocialApp(
+          name: info.name,
+          icon: null,
+          color: colorFromName(info.name),
+          packageName: info.packageName,
+        ),
+    ];
+
+    // Seeded before the first page: listeners such as the home screen's
+    // first-run pick cancel after one page.
+    unawaited(InstalledAppIndex.seed(scanned));
+
+    for (var start = 0; start < scanned.length; start += pageSize) {
+      yield scanned.sublist(start, min(start + pageSize, scanned.length));
+    }
+  }
+
+  /// Applies package installs, updates and removals since the last scan.
+  static Future<AppIndexDelta> sync() async {
+    final delta = await InstalledAppIndex.sync();
+    for (final app in delta.updated) {
+      releaseIcon(app.packageName);
+      IconCache.evict(app.packageName);
+    }
+    for (final packageName in delta.removed) {
+      releaseIcon(packageName);
+      IconCache.evict(packageName);
+    }
+    return delta;
+  }
+
+  /// Returns the launcher icon of [packageName], fetching it at most once.
+  static Future<Uint8List?> loadIcon(String packageName) {
+    final size = _iconSizes.remove(packageName);
+    if (size != null) _iconSizes[packageName] = size; // most recently used
+
+    final cached = _icons[packageName];
+    if (cached != null) return cached;
+
+    late final Future<Uint8List?> future;
+    future = _fetch(packageName).then((icon) {
+      // Released, and perhaps fetched again, while this fetch ran: the bytes
+      // are not held, or are accounted by the newer fetch.
+      if (!identical(_icons[packageName], future)) return icon;
+      if (icon == null) {
+        _icons.remove(packageName);
+      } else {
+        _iconSizes[packageName] = icon.length;
+        _iconBytes += icon.length;
+        trimIcons(maxIconBytes);
+      }
+      return icon;
+    });
+    return _icons[packageName] = future;
+  }
+
+  /// Returns [app] with its icon bytes and icon-derived color filled in.
+  static Future<SocialApp> withIcon(SocialApp app) async {
+    if (app.icon != null) return app;
+    final icon = await loadIcon(app.packageName);
+    if (icon == null) return app;
+    final color = await IconPalette.colorOf(app.packageName, icon);
+    return app.copyWith(icon: icon, color: color);
+  }
+
+  /// Drops the in-memory bytes of one icon; the next [loadIcon] rereads them
+  /// from the on-device index.
+  static void releaseIcon(String packageName) {
+    _icons.remove(packageName);
+    _iconBytes -= _iconSizes.remove(packageName) ?? 0;
+  }
+
+  /// Drops least recently used icon bytes until at most [bytes] are held.
+  static void trimIcons(int bytes) {
+    while (_iconBytes > bytes && _iconSizes.isNotEmpty) {
+      releaseIcon(_iconSizes.keys.first);
+    }
+  }
+
+  /// Forgets fetched icons, e.g. after packages changed.
+  static void clearIcons() {
+    _icons.clear();
+    _iconSizes.clear();
+    _iconBytes = 0;
+  }
+
+  /// Forgets fetched icons and, if given, fetches icons with [fetchIcon]
+  /// instead of the index and the platform.
+  @visibleForTesting
+  static void debugReset({Future<Uint8List?> Function(String packageName)? fetchIcon}) {
+    clearIcons();
+    _fetch = fetchIcon ?? _fetchIcon;
+  }
+
+  static Future<Uint8List?> _fetchIcon(String packageName) async {
+    try {
+      final cached = await InstalledAppIndex.readIcon(packageName);
+      if (cached != null) return cached;
+
+      final info = await InstalledApps.getAppInfo(packageName);
+      if (info?.icon != null) {
+        await InstalledAppIndex.writeIcon(packageName, info!.icon);
+        return info.icon;
+      }
+    } catch (e) {
+      debugPrint('Error loading icon for $packageName: $e');
+    }
+    return null;
+  }
+}
@@ -0,0 +1,249 @@
+import 'dart:math';
+import 'app_data.dart';
+
+/// Search index over the scanned apps for the Add Apps screen.
+///
+/// Names are normalized once when added and indexed by trigram, so a query
+/// only touches apps that can possibly contain it. Results are ranked
+/// (name prefix, word prefix, substring, then near misses with one or two
+/// typos) and carry enough state that a query which merely grows by a few
+/// characters filters the previous matches instead of starting over.
+///
+/// Near misses come from a second trigram index over each word with two
+/// leading spaces, so even a three-letter query with a typo still shares
+/// the grams at its start with the word it means.
+class AppSearchIndex {
+  /// Below this many direct matches, near misses are added to the results.
+  static const int fuzzyThreshold = 8;
+
+  final List<SocialApp> _apps = [];
+  final List<String> _keys = [];
+  final List<List<String>> _words = [];
+  final List<bool> _removed = [];
+  final Map<String, List<int>> _trigrams = {};
+  final Map<String, List<int>> _wordGrams = {};
+  int _generation = 0;
+
+  List<SocialApp> get apps => [
+        for (var i = 0; i < _apps.length; i++)
+          if (!_removed[i]) _apps[i],
+      ];
+
+  void addAll(Iterable<SocialApp> apps) {
+    for (final app in apps) {
+      final id = _apps.length;
+      final key = normalize(app.name);
+      _apps.add(app);
+      _keys.add(key);
+      _words.add(key.split(' '));
+      _removed.add(false);
+      _post(id, key);
+    }
+    _generation++;
+  }
+
+  /// Swaps [apps] in for the entries with the same package, keeping their
+  /// place in [apps]; packages not indexed yet are added at the end.
+  void replaceAll(Iterable<SocialApp> apps) {
+    final byPackage = {for (final app in apps) app.packageName: app};
+    for (var id = 0; id < _apps.length && byPackage.isNotEmpty; id++) {
+      if (_removed[id]) continue;
+      final app = byPackage.remove(_apps[id].packageName);
+      if (app == null) continue;
+
+      _apps[id] = app;
+      final key = normalize(app.name);
+      if (key == _keys[id]) continue;
+      _keys[id] = key;
+      _words[id] = key.split(' ');
+      // Grams of the old name stay posted; every match rechecks the key.
+      _post(id, key);
+    }
+    addAll(byPackage.values);
+  }
+
+  void _post(int id, String key) {
+    for (final gram in _gramsOf(key)) {
+      _insert(_trigrams.putIfAbsent(gram, () => []), id);
+    }
+    for (final word in key.split(' ')) {
+      for (final gram in _gramsOf(_padded(word))) {
+        _insert(_wordGrams.putIfAbsent(gram, () => []), id);
+      }
+    }
+  }
+
+  // Keeps postings sorted, as [_intersect] needs.
+  static void _insert(List<int> postings, int id) {
+    if (postings.isEmpty || postings.last < id) {
+      postings.add(id);
+      return;
+    }
+    var at = 0;
+    while (at < postings.length && postings[at] < id) {
+      at++;
+    }
+    if (postings[at] != id) postings.insert(at, id);
+  }
+
+  void removeWhere(Set<String> packageNames) {
+    for (var i = 0; i < _apps.length; i++) {
+      if (packageNames.contains(_apps[i].packageName)) _removed[i] = true;
+    }
+    _generation++;
+  }
+
+  /// Runs [query], reusing [previous] when it is a prefix of this query.
+  AppSearchResult search(String query, [AppSearchResult? previous]) {
+    final q = normalize(query);
+    if (q.isEmpty) return AppSearchResult._(q, _generation, const [], apps);
+
+    final reuse = previous != null &&
+        previous._generation == _generation &&
+        previous.query.isNotEmpty &&
+        q.startsWith(previous.query);
+
+    final Iterable<int> candidates = reuse ? previous._direct : _candidates(q);
+    final direct = <int>[];
+    for (final id in candidates) {
+      if (!_removed[id] && _keys[id].contains(q)) direct.add(id);
+    }
+
+    final scored = <_Scored>[for (final id in direct) _Scored(id, _directScore(id, q))];
+
+    if (direct.length < fuzzyThreshold && q.length >= 3) {
+      final seen = direct.toSet();
+      final maxEdits = q.length >= 7 ? 2 : 1;
+      for (final id in _fuzzyCandidates(q, maxEdits)) {
+        if (_removed[id] || seen.contains(id)) continue;
+        final edits = _closestWord(id, q, maxEdits);
+        if (edits <= maxEdits) scored.add(_Scored(id, 3 + edits));
+      }
+    }
+
+    scored.sort((a, b) {
+      final byScore = a.score.compareTo(b.score);
+      return byScore != 0 ? byScore : _keys[a.id].compareTo(_keys[b.id]);
+    });
+
+    return AppSearchResult._(
+      q,
+      _generation,
+      direct,
+      [for (final s in scored) _apps[s.id]],
+    );
+  }
+
+  Iterable<int> _candidates(String q) {
+    if (q.length < 3) return Iterable<int>.generate(_apps.length);
+
+    List<int>? result;
+    for (final gram in _gramsOf(q)) {
+      final postings = _trigrams[gram];
+      if (postings == null) return const [];
+      result = result == null ? postings : _intersect(result, postings);
+      if (result.isEmpty) return const [];
+    }
+    return result ?? const [];
+  }
+
+  // Apps with a word sharing enough padded trigrams with [q] to be within
+  // [maxEdits] of it: each edit changes at most three grams. Only the start
+  // is padded, since [q] is matched against word prefixes.
+  Iterable<int> _fuzzyCandidates(String q, int maxEdits) {
+    final grams = _gramsOf(_padded(q)).toSet();
+    final needed = max(1, grams.length - 3 * maxEdits);
+    final counts = <int, int>{};
+    for (final gram in grams) {
+      for (final id in _wordGrams[gram] ?? const <int>[]) {
+        counts[id] = (counts[id] ?? 0) + 1;
+      }
+    }
+    return counts.entries.where((e) => e.value >= needed).map((e) => e.key);
+  }
+
+  int _directScore(int id, String q) {
+    if (_keys[id].startsWith(q)) return 0;
+    for (final word in _words[id]) {
+      if (word.startsWith(q)) return 1;
+    }
+    return 2;
+  }
+
+  int _closestWord(int id, String q, int maxEdits) {
+    var best = maxEdits + 1;
+    for (final word in _words[id]) {
+      for (var len = q.length - 1; len <= q.length + 1; len++) {
+        if (len <= 0 || len > word.length) continue;
+        best = min(best, _editDistance(q, word.substring(0, len), best));
+      }
+    }
+    return best;
+  }
+
+  static String _padded(String word) => '  $word';
+
+  static Iterable<String> _gramsOf(String key) sync* {
+    for (var i = 0; i + 3 <= key.length; i++) {
+      yield key.substring(i, i + 3);
+    }
+  }
+
+  static List<int> _intersect(List<int> a, List<int> b) {
+    final out = <int>[];
+    var i = 0, j = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] == b[j]) {
+        out.add(a[i]);
+        i++;
+        j++;
+      } else if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return out;
+  }
+
+  // Levenshtein distance, giving up once every path exceeds [limit].
+  static int _editDistance(String a, String b, int limit) {
+    if ((a.length - b.length).abs() >= limit) return limit;
+
+    var prev = List<int>.generate(b.length + 1, (i) => i);
+    for (var i = 1; i <= a.length; i++) {
+      final curr = List<int>.filled(b.length + 1, 0)..[0] = i;
+      var rowMin = i;
+      for (var j = 1; j <= b.length; j++) {
+        final cost = a.codeUnitAt(i - 1) == b.codeUnitAt(j - 1) ? 0 : 1;
+        curr[j] = min(min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+        rowMin = min(rowMin, curr[j]);
+      }
+      if (rowMin >= limit) return limit;
+      prev = curr;
+    }
+    return prev[b.length];
+  }
+
+  static final RegExp _separators = RegExp(r'[^\p{L}\p{N}]+', unicode: true);
+
+  /// Lower-cases [input] and collapses punctuation to single spaces.
+  static String normalize(String input) =>
+      input.toLowerCase().replaceAll(_separators, ' ').trim();
+}
+
+class AppSearchResult {
+  final String query;
+  final List<SocialApp> apps;
+  final int _generation;
+  final List<int> _direct;
+
+  AppSearchResult._(this.query, this._generation, this._direct, this.apps);
+}
+
+class _Scored {
+  final int id;
+  final int score;
+
+  _Scored(this.id, this.score);
+}
@@ -0,0 +1,308 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:io';
+import 'dart:typed_data';
+import 'package:flutter/material.dart';
+import 'package:path_provider/path_provider.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+import 'app_data.dart';
+
+/// Persists the apps placed on the web in a compact binary format.
+///
+/// Everything lives under `<app support>/selected_apps/`:
+///
+///   index.bin              'SPDR', u8 version, u16 count, then for each app:
+///                          u16 name length, name (utf8), u16 package length,
+///                          package (utf8), u32 color, u32 icon hash
+///   icons/<package>.png    raw icon bytes, one file per package
+///
+/// The icon hash is a hash of the icon bytes, so a toggle only rewrites the
+/// small index and the icons that are new or changed (e.g. after an app
+/// update). A hash of 0 means the app has no stored bytes (e.g. the built-in
+/// [IconData] apps). A corrupt index is kept as `index.bin.bad` and the
+/// selection falls back to what older versions saved in SharedPreferences.
+class SelectedAppsStore {
+  static const String _legacyDataKey = 'selected_apps_data';
+  static const String _legacyNamesKey = 'selected_apps';
+
+  static const List<int> _magic = [0x53, 0x50, 0x44, 0x52]; // 'SPDR'
+  static const int _version = 1;
+
+  static Directory? _root;
+  static List<SocialApp>? _cache;
+  static bool _hasSaved = false;
+  // Icon hash of every package whose icon file is known to be on disk.
+  static Map<String, int>? _storedIcons;
+  static Future<void> _pending = Future.value();
+  static List<SocialApp>? _queued;
+
+  /// Returns the saved apps, reading them from disk on first use.
+  static Future<List<SocialApp>> load() async {
+    if (_cache != null) return List.of(_cache!);
+
+    try {
+      final root = await _directory();
+      final index = File('${root.path}/index.bin');
+
+      if (await index.exists()) {
+        _hasSaved = true;
+        try {
+          _cache = await _readIndex(root, await index.readAsBytes());
+        } on FormatException catch (e) {
+          debugPrint('Selected apps index is corrupt ($e); kept as index.bin.bad');
+          await index.rename('${root.path}/index.bin.bad');
+          _cache = await _migrateLegacy();
+        }
+      } else {
+        _cache = await _migrateLegacy();
+      }
+    } catch (e) {
+      debugPrint('Error loading selected apps: $e');
+      _cache = [];
+    }
+    return List.of(_cache!);
+  }
+
+  /// Whether a selection was ever saved, even an empty one. Valid once
+  /// [load] has finished.
+  static bool get hasSaved => _hasSaved;
+
+  /// Forgets cached state and, if given, stores under [root] instead.
+  @visibleForTesting
+  static void debugReset({Directory? root}) {
+    _root = root;
+    _cache = null;
+    _hasSaved = false;
+    _storedIcons = null;
+    _pending = Future.value();
+    _queued = null;
+  }
+
+  /// Replaces the saved apps with [apps].
+  ///
+  /// [load] sees the new list at once; the disk write happens behind it.
+  /// Only icons that are new or changed are written; icons of apps that were
+  /// removed are deleted afterwards. Writes are serialized, and saves that
+  /// arrive while one is running collapse into a single follow-up write of
+  /// the latest list, so rapid toggles cost at most two writes.
+  static Future<void> save(List<SocialApp> apps) {
+    final snapshot = List<SocialApp>.of(apps);
+    _cache = snapshot;
+    _hasSaved = true;
+    final scheduled = _queued != null;
+    _queued = snapshot;
+    if (scheduled) return _pending;
+
+    _pending = _pending.then((_) {
+      final latest = _queued!;
+      _queued = null;
+      return _write(latest);
+    }).catchError((e) {
+      debugPrint('Error saving selected apps: $e');
+    });
+    return _pending;
+  }
+
+  /// Completes once every [save] so far is on disk.
+  static Future<void> flush() => _pending;
+
+  static Future<void> _write(List<SocialApp> apps) async {
+    final root = await _directory();
+    // Before the first load nothing is known to be on disk, so every icon
+    // is written once.
+    final stored = _storedIcons ??= {};
+    final packages = <String>{};
+
+    for (final app in apps) {
+      final bytes = _iconBytes(app);
+      if (bytes == null) continue;
+
+      packages.add(app.packageName);
+      final hash = _hash(bytes);
+      if (stored[app.packageName] != hash) {
+        // Only recorded once the bytes are on disk, so a failed write is
+        // retried by the next save.
+        stored.remove(app.packageName);
+        await File(_iconPath(root, app.packageName)).writeAsBytes(bytes, flush: true);
+        stored[app.packageName] = hash;
+      }
+    }
+
+    final tmp = File('${root.path}/index.bin.tmp');
+    await tmp.writeAsBytes(_encodeIndex(apps, stored), flush: true);
+    await tmp.rename('${root.path}/index.bin');
+
+    final removed = [
+      for (final package in stored.keys)
+        if (!packages.contains(package)) _iconPath(root, package),
+    ];
+    stored.removeWhere((package, _) => !packages.contains(package));
+    for (final path in removed) {
+      final file = File(path);
+      if (await file.exists()) await file.delete();
+    }
+  }
+
+  static Uint8List _encodeIndex(List<SocialApp> apps, Map<String, int> iconHashes) {
+    final out = BytesBuilder(copy: false)
+      ..add(_magic)
+      ..addByte(_version)
+      ..add(_u16(apps.length));
+
+    for (final app in apps) {
+      final name = utf8.encode(app.name);
+      final package = utf8.encode(app.packageName);
+      out
+        ..add(_u16(name.length))
+        ..add(name)
+        ..add(_u16(package.length))
+        ..add(package)
+        ..add(_u32(app.color.value))
+        ..add(_u32(iconHashes[app.packageName] ?? 0));
+    }
+    return out.takeBytes();
+  }
+
+  static Future<List<SocialApp>> _readIndex(Directory root, Uint8List bytes) async {
+    final entries = _parseIndex(bytes);
+    final stored = <String, int>{};
+
+    final apps = await Future.wait(entries.map((entry) async {
+      dynamic icon;
+      if (entry.iconHash != 0) {
+        final file = File(_iconPath(root, entry.packageName));
+        if (await file.exists()) {
+          icon = await file.readAsBytes();
+          stored[entry.packageName] = entry.iconHash;
+        }
+      }
+      icon ??= _builtInApp(entry.packageName)?.icon;
+
+      return SocialApp(
+        name: entry.name,
+        packageName: entry.packageName,
+        icon: icon,
+        color: Color(entry.color),
+        launchUrls: _builtInApp(entry.packageName)?.launchUrls,
+        fallbackUrl: _builtInApp(entry.packageName)?.fallbackUrl,
+      );
+    }));
+
+    _storedIcons = stored;
+    return apps;
+  }
+
+  static List<_IndexEntry> _parseIndex(Uint8List bytes) {
+    if (bytes.length < 7) throw const FormatException('Truncated selected apps index');
+    final data = ByteData.sublistView(bytes);
+    for (var i = 0; i < _magic.length; i++) {
+      if (bytes[i] != _magic[i]) throw const FormatException('Bad selected apps index');
+    }
+    if (bytes[4] != _version) {
+      throw FormatException('Unsupported index version ${bytes[4]}');
+    }
+
+    final count = data.getUint16(5);
+    var offset = 7;
+    final entries = <_IndexEntry>[];
+
+    try {
+      for (var i = 0; i < count; i++) {
+        final nameLength = data.getUint16(offset);
+        final name = utf8.decode(bytes.sublist(offset + 2, offset + 2 + nameLength));
+        offset += 2 + nameLength;
+
+        final packageLength = data.getUint16(offset);
+        final package = utf8.decode(bytes.sublist(offset + 2, offset + 2 + packageLength));
+        offset += 2 + packageLength;
+
+        entries.add(_IndexEntry(name, package, data.getUint32(offset), data.getUint32(offset + 4)));
+        offset += 8;
+      }
+    } on RangeError {
+      throw FormatException('Truncated selected apps index', bytes, offset);
+    }
+    return entries;
+  }
+
+  /// Moves apps saved by older versions (base64 JSON in SharedPreferences)
+  /// into the binary store, then drops the old key.
+  static Future<List<SocialApp>> _migrateLegacy() async {
+    final prefs = await SharedPreferences.getInstance();
+    _hasSaved = _hasSaved || prefs.containsKey(_legacyDataKey) || prefs.containsKey(_legacyNamesKey);
+    final savedAppData = prefs.getStringList(_legacyDataKey) ?? [];
+
+    if (savedAppData.isNotEmpty) {
+      final apps = savedAppData.map((jsonStr) {
+        final data = jsonDecode(jsonStr);
+        return SocialApp(
+          name: data['name'],
+          packageName: data['packageName'],
+          icon: base64Decode(data['icon']),
+          color: Color(data['color']),
+        );
+      }).toList();
+
+      await _write(apps);
+      await prefs.remove(_legacyDataKey);
+      return apps;
+    }
+
+    final savedAppNames = prefs.getStringList(_legacyNamesKey) ?? [];
+    return allSocialApps.where((app) => savedAppNames.contains(app.name)).toList();
+  }
+
+  static Future<Directory> _directory() async {
+    if (_root != null) return _root!;
+    final support = await getApplicationSupportDirectory();
+    final root = Directory('${support.path}/selected_apps');
+    await Directory('${root.path}/icons').create(recursive: true);
+    return _root = root;
+  }
+
+  static String _iconPath(Directory root, String packageName) =>
+      '${root.path}/icons/${iconFileName(packageName)}';
+
+  static Uint8List? _iconBytes(SocialApp app) {
+    final icon = app.icon;
+    if (icon is Uint8List) return icon;
+    if (icon is List<int>) return Uint8List.fromList(icon);
+    return null;
+  }
+
+  static SocialApp? _builtInApp(String packageName) {
+    for (final app in allSocialApps) {
+      if (app.packageName == packageName) return app;
+    }
+    return null;
+  }
+
+  /// File name of [packageName]'s icon. Android package names are already
+  /// safe file names; anything else is percent-escaped, so two packages
+  /// never share a file.
+  static String iconFileName(String packageName) => '${Uri.encodeComponent(packageName)}.png';
+
+  /// 32-bit FNV-1a hash of [bytes]; never 0.
+  static int _hash(List<int> bytes) {
+    var hash = 0x811c9dc5;
+    for (final byte in bytes) {
+      hash ^= byte;
+      hash = (hash * 0x01000193) & 0xffffffff;
+    }
+    return hash == 0 ? 1 : hash;
+  }
+
+  static List<int> _u16(int value) => [(value >> 8) & 0xff, value & 0xff];
+
+  static List<int> _u32(int value) =>
+      [(value >> 24) & 0xff, (value >> 16) & 0xff, (value >> 8) & 0xff, value & 0xff];
+}
+
+class _IndexEntry {
+  final String name;
+  final String packageName;
+  final int color;
+  final int iconHash;
+
+  _IndexEntry(this.name, this.packageName, this.color, this.iconHash);
+}
@@ -0,0 +1,55 @@
+// GENERATED by tool/assets.dart, do not edit.
+// Run `dart run tool/assets.dart` after adding, removing or replacing images.
+
+import 'app_asset.dart';
+
+class Assets {
+  Assets._();
+
+  /// 308 x 320 px, 39 KB.
+  static const AppAsset homeVector1 = AppAsset('assets/home/Vector (1).png', 308, 320);
+
+  /// 393 x 852 px, 27 KB.
+  static const AppAsset homeVector = AppAsset('assets/home/Vector.png', 393, 852);
+
+  /// 393 x 852 px, 528 KB.
+  static const AppAsset imagesAbstractCybersecurityConceptDesign = AppAsset('assets/images/abstract-cybersecurity-concept-design.png', 393, 852);
+
+  /// 393 x 852 px, 365 KB.
+  static const AppAsset imagesNativeMobileAppSecurity = AppAsset('assets/images/native-mobile-app-security.png', 393, 852);
+
+  /// 393 x 852 px, 556 KB.
+  static const AppAsset imagesYoungGirlUsingDigitalTabletNightBeautyLightBokehCity = AppAsset('assets/images/young-girl-using-digital-tablet-night-beauty-light-bokeh-city.png', 393, 852);
+
+  /// 48 x 42 px, 0 KB.
+  static const AppAsset splashGroup1410092258_1 = AppAsset('assets/splash/Group 1410092258-1.png', 48, 42);
+
+  /// 91 x 80 px, 1 KB.
+  static const AppAsset splashGroup1410092258_2 = AppAsset('assets/splash/Group 1410092258-2.png', 91, 80);
+
+  /// 133 x 117 px, 3 KB.
+  static const AppAsset splashGroup1410092258_3 = AppAsset('assets/splash/Group 1410092258-3.png', 133, 117);
+
+  /// 206 x 181 px, 7 KB.
+  static const AppAsset splashGroup1410092258_5 = AppAsset('assets/splash/Group 1410092258-5.png', 206, 181);
+
+  /// 90 x 98 px, 2 KB.
+  static const AppAsset splashGroup1410092262 = AppAsset('assets/splash/Group 1410092262.png', 90, 98);
+
+  /// 393 x 852 px, 278 KB.
+  static const AppAsset splashImage1 = AppAsset('assets/splash/image 1.png', 393, 852);
+
+  static const List<AppAsset> all = [
+    homeVector1,
+    homeVector,
+    imagesAbstractCybersecurityConceptDesign,
+    imagesNativeMobileAppSecurity,
+    imagesYoungGirlUsingDigitalTabletNightBeautyLightBokehCity,
+    splashGroup1410092258_1,
+    splashGroup1410092258_2,
+    splashGroup1410092258_3,
+    splashGroup1410092258_5,
+    splashGroup1410092262,
+    splashImage1,
+  ];
+}
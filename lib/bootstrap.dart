@@ -0,0 +1,82 @@
+import 'dart:async';
+import 'package:flutter/material.dart';
+import 'app_store.dart';
+import 'assets.dart';
+import 'login_screen.dart';
+import 'memory_governor.dart';
+import 'notification_store.dart';
+import 'pref_store.dart';
+import 'usage_stats.dart';
+
+/// Startup work that runs while the splash animation plays.
+///
+/// [start] kicks off session restore and selected-app loading straight from
+/// `main`, and [warmUp] decodes the home screen images as soon as a context
+/// exists, so none of it is left for the first screens to wait on. The time
+/// from [start] to [markInteractive] is kept as [timeToInteractive].
+class AppBootstrap {
+  static const String _splashSeenKey = 'splash_seen';
+
+  static final Stopwatch _clock = Stopwatch();
+  static Future<void>? _ready;
+  static bool _isReady = false;
+  static bool _splashSeen = false;
+  static Duration? _timeToInteractive;
+
+  static bool get isReady => _isReady;
+  static Future<void> get ready => _ready ?? Future.value();
+  static Duration? get timeToInteractive => _timeToInteractive;
+
+  /// True once bootstrap finished for a user who has seen the splash before.
+  static bool get canSkipSplash => _isReady && _splashSeen;
+
+  static void start() {
+    if (_ready != null) return;
+    _clock.start();
+    MemoryGovernor.ensureInitialized();
+    _ready = Future.wait([
+      UserSession.checkLoginStatus(),
+      SelectedAppsStore.load(),
+      NotificationStore.load(),
+      UsageStats.load(),
+      _loadSplashSeen(),
+    ]).then((_) {
+      _isReady = true;
+      debugPrint('Bootstrap ready after ${_clock.elapsedMilliseconds} ms');
+    }).catchError((e) {
+      debugPrint('Bootstrap error: $e');
+    });
+  }
+
+  /// Decodes the home screen images into the image cache.
+  static Future<void> warmUp(BuildContext context) {
+    return Future.wait(
+      [
+        // Same sizes as HomeBackground and the spider on HomeScreen.
+        Assets.homeVector.fullScreen(context),
+        Assets.homeVector1.provider(context, width: 350, height: 350),
+      ].map((image) => precacheImage(image, context)),
+    ).catchError((e) {
+      debugPrint('Error warming up home images: $e');
+      return const <void>[];
+    });
+  }
+
+  /// Records the first interactive frame; later calls are ignored.
+  static void markInteractive() {
+    if (_timeToInteractive != null) return;
+    _timeToInteractive = _clock.elapsed;
+    debugPrint('Time to interactive: ${_timeToInteractive!.inMilliseconds} ms');
+    _markSplashSeen();
+  }
+
+  static Future<void> _loadSplashSeen() async {
+    await PrefStore.load();
+    _splashSeen = PrefStore.getBool(_splashSeenKey) ?? false;
+  }
+
+  static void _markSplashSeen() {
+    if (_splashSeen) return;
+    PrefStore.set(_splashSeenKey, true);
+  }
+}
@@ -0,0 +1,60 @@
+import 'dart:async';
+import 'dart:io';
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+
+enum DeviceTier { low, high }
+
+/// What the device can afford, read once from the native `spider/device`
+/// channel.
+///
+/// [powerSave] follows battery saver live. [tier] is [DeviceTier.low] on
+/// devices Android classes as low-RAM, with a small per-app heap, or with
+/// few cores. Everything reads as a high-tier device without battery saver
+/// until [load] completes, and on platforms without the channel.
+class DeviceProfile {
+  static const MethodChannel _channel = MethodChannel('spider/device');
+  static const EventChannel _power = EventChannel('spider/device/power');
+
+  static final ValueNotifier<bool> powerSave = ValueNotifier(false);
+
+  static bool _lowRam = false;
+  static int _memoryClassMb = 0;
+  static int _processors = Platform.numberOfProcessors;
+  static Future<void>? _loading;
+  static StreamSubscription<dynamic>? _powerSub;
+
+  static bool get lowRam => _lowRam;
+
+  /// Heap budget per app in MB, 0 when unknown.
+  static int get memoryClassMb => _memoryClassMb;
+
+  static int get processors => _processors;
+
+  static DeviceTier get tier =>
+      _lowRam || (_memoryClassMb > 0 && _memoryClassMb < 192) || _processors < 4
+          ? DeviceTier.low
+          : DeviceTier.high;
+
+  static Future<void> load() => _loading ??= _load();
+
+  static Future<void> _load() async {
+    try {
+      final profile = await _channel.invokeMapMethod<String, dynamic>('getDeviceProfile');
+      if (profile != null) {
+        _lowRam = profile['lowRam'] == true;
+        _memoryClassMb = profile['memoryClassMb'] ?? 0;
+        _processors = profile['processors'] ?? _processors;
+        powerSave.value = profile['powerSave'] == true;
+      }
+      _powerSub ??= _power.receiveBroadcastStream().listen(
+        (event) => powerSave.value = event == true,
+        onError: (e) => debugPrint('Power events failed: $e'),
+      );
+    } on PlatformException catch (e) {
+      debugPrint('Failed to read device profile: ${e.message}');
+    } on MissingPluginException {
+      // Not on Android; keep the defaults.
+    }
+  }
+}
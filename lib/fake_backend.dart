@@ -0,0 +1,306 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:math';
+import 'package:http/http.dart' as http;
+
+/// How the network between the app and a [FakeBackend] behaves.
+class NetworkConditions {
+  /// Round trip added to every request.
+  final Duration latency;
+
+  /// Each request's round trip is [latency] plus or minus up to this much.
+  final Duration jitter;
+
+  /// Share of requests the server answers with a 503.
+  final double errorRate;
+
+  /// Share of requests whose connection drops without an answer.
+  final double dropRate;
+
+  /// Transfer rate for request and response bodies; null is unlimited.
+  final int? bytesPerSecond;
+
+  const NetworkConditions({
+    this.latency = Duration.zero,
+    this.jitter = Duration.zero,
+    this.errorRate = 0,
+    this.dropRate = 0,
+    this.bytesPerSecond,
+  });
+
+  static const NetworkConditions ideal = NetworkConditions();
+
+  static const NetworkConditions wifi = NetworkConditions(
+    latency: Duration(milliseconds: 30),
+    jitter: Duration(milliseconds: 10),
+    bytesPerSecond: 2 << 20,
+  );
+
+  static const NetworkConditions slow3g = NetworkConditions(
+    latency: Duration(milliseconds: 400),
+    jitter: Duration(milliseconds: 100),
+    bytesPerSecond: 50 << 10,
+  );
+
+  static const NetworkConditions lossy = NetworkConditions(
+    latency: Duration(milliseconds: 150),
+    jitter: Duration(milliseconds: 50),
+    errorRate: 0.1,
+    dropRate: 0.05,
+    bytesPerSecond: 256 << 10,
+  );
+
+  static const Map<String, NetworkConditions> presets = {
+    'ideal': ideal,
+    'wifi': wifi,
+    'slow3g': slow3g,
+    'lossy': lossy,
+  };
+}
+
+/// One request the [FakeBackend] handled.
+class FakeRequest {
+  final String method;
+  final String path;
+
+  /// 0 when the connection was dropped.
+  final int statusCode;
+
+  /// Requests still in flight when this one started.
+  final int concurrent;
+
+  const FakeRequest(this.method, this.path, this.statusCode, this.concurrent);
+
+  @override
+  String toString() => '$method $path -> $statusCode';
+}
+
+/// In-process stand-in for the backend, used as the [http.Client] of an
+/// `ApiClient`.
+///
+/// It keeps users in memory and answers the routes the app calls: `/login`,
+/// `/users` (sign up), `/users/{id}` (GET with ETags, PUT, DELETE),
+/// `/send-otp`, `/verify-otp` and `/reset-password`. Every request goes
+/// through [conditions], which can be changed at any time; delays use
+/// ordinary timers, so widget tests advance them with `pump`. [requests]
+/// logs what was called and how many requests overlapped, which shows
+/// chatty screens and requests that wait on each other needlessly.
+class FakeBackend extends http.BaseClient {
+  NetworkConditions conditions;
+
+  /// The code `/send-otp` "emails".
+  final String otp;
+
+  final Random _random;
+  final Map<String, Map<String, String>> _users = {};
+  final Map<String, String> _otps = {};
+  final Set<String> _verified = {};
+  final List<FakeRequest> _requests = [];
+  int _nextId = 1;
+  int _inFlight = 0;
+
+  /// Most requests that were in flight at the same time.
+  int maxInFlight = 0;
+
+  FakeBackend({
+    this.conditions = NetworkConditions.ideal,
+    this.otp = '123456',
+    int seed = 0,
+  }) : _random = Random(seed);
+
+  /// A backend with one account, `demo@example.com` / `password`, for
+  /// running the app without the real server.
+  factory FakeBackend.demo({NetworkConditions conditions = NetworkConditions.ideal}) =>
+      FakeBackend(conditions: conditions)
+        ..addUser(fullName: 'Demo User', email: 'demo@example.com', password: 'password');
+
+  List<FakeRequest> get requests => List.unmodifiable(_requests);
+
+  /// Requests logged for [method] on paths matching [path].
+  int count(String method, Pattern path) =>
+      _requests.where((r) => r.method == method && path.allMatches(r.path).isNotEmpty).length;
+
+  void clearLog() {
+    _requests.clear();
+    maxInFlight = _inFlight;
+  }
+
+  /// Adds an account and returns its id.
+  String addUser({required String fullName, required String email, required String password}) {
+    final id = 'u${_nextId++}';
+    _users[id] = {'fullName': fullName, 'email': email, 'password': password};
+    return id;
+  }
+
+  @override
+  Future<http.StreamedResponse> send(http.BaseRequest request) async {
+    final body = await request.finalize().toBytes();
+    final network = conditions;
+    final concurrent = _inFlight++;
+    maxInFlight = max(maxInFlight, _inFlight);
+    try {
+      await _transfer(body.length, network);
+      await Future<void>.delayed(_roundTrip(network));
+
+      if (_random.nextDouble() < network.dropRate) {
+        _requests.add(FakeRequest(request.method, request.url.path, 0, concurrent));
+        throw http.ClientException('Connection reset', request.url);
+      }
+      final response = _random.nextDouble() < network.errorRate
+          ? _json(503, {'message': 'Service unavailable'})
+          : _route(request, body.isEmpty ? null : jsonDecode(utf8.decode(body)));
+
+      await _transfer(response.bodyBytes.length, network);
+      _requests.add(FakeRequest(request.method, request.url.path, response.statusCode, concurrent));
+      return http.StreamedResponse(
+        Stream.value(response.bodyBytes),
+        response.statusCode,
+        contentLength: response.bodyBytes.length,
+        headers: response.headers,
+        request: request,
+      );
+    } finally {
+      _inFlight--;
+    }
+  }
+
+  Duration _roundTrip(NetworkConditions network) {
+    final jitter = network.jitter.inMicroseconds;
+    final offset = jitter == 0 ? 0 : _random.nextInt(2 * jitter + 1) - jitter;
+    return Duration(microseconds: max(0, network.latency.inMicroseconds + offset));
+  }
+
+  Future<void> _transfer(int bytes, NetworkConditions network) async {
+    final rate = network.bytesPerSecond;
+    if (rate == null || bytes == 0) return;
+    await Future<void>.delayed(Duration(microseconds: bytes * 1000000 ~/ rate));
+  }
+
+  http.Response _route(http.BaseRequest request, Object? body) {
+    final fields = body is Map ? body.map((k, v) => MapEntry('$k', '$v')) : <String, String>{};
+    final path = request.url.path;
+    final user = RegExp(r'^/users/([^/]+)$').firstMatch(path);
+
+    switch ((request.method, path)) {
+      case ('POST', '/login'):
+        return _login(fields);
+      case ('POST', '/users'):
+        return _signUp(fields);
+      case ('POST', '/send-otp'):
+        return _sendOtp(fields);
+      case ('POST', '/verify-otp'):
+        return _verifyOtp(fields);
+      case ('POST', '/reset-password'):
+        return _resetPassword(fields);
+    }
+    if (user != null) {
+      final id = user.group(1)!;
+      switch (request.method) {
+        case 'GET':
+          return _getUser(id, request.headers['If-None-Match']);
+        case 'PUT':
+          return _updateUser(id, fields);
+        case 'DELETE':
+          return _deleteUser(id);
+      }
+    }
+    return _json(404, {'message': 'Not found'});
+  }
+
+  String? _idForEmail(String? email) {
+    final wanted = email?.trim().toLowerCase();
+    for (final entry in _users.entries) {
+      if (entry.value['email']!.toLowerCase() == wanted) return entry.key;
+    }
+    return null;
+  }
+
+  Map<String, String> _public(String id) =>
+      {'_id': id, 'fullName': _users[id]!['fullName']!, 'email': _users[id]!['email']!};
+
+  http.Response _login(Map<String, String> fields) {
+    final id = _idForEmail(fields['email']);
+    if (id == null || _users[id]!['password'] != fields['password']) {
+      return _json(401, {'message': 'Invalid email or password'});
+    }
+    return _json(200, {
+      'message': 'Login successful',
+      'user': {..._public(id), 'name': _users[id]!['fullName']},
+    });
+  }
+
+  http.Response _signUp(Map<String, String> fields) {
+    final fullName = fields['fullName']?.trim() ?? '';
+    final email = fields['email']?.trim() ?? '';
+    final password = fields['password'] ?? '';
+    if (fullName.isEmpty || email.isEmpty || password.isEmpty) {
+      return _json(400, {'message': 'All fields are required'});
+    }
+    if (_idForEmail(email) != null) return _json(409, {'message': 'User already exists'});
+    final id = addUser(fullName: fullName, email: email, password: password);
+    return _json(201, _public(id));
+  }
+
+  http.Response _getUser(String id, String? ifNoneMatch) {
+    if (!_users.containsKey(id)) return _json(404, {'message': 'User not found'});
+    final body = jsonEncode(_public(id));
+    final etag = '"${body.hashCode.toRadixString(16)}"';
+    if (ifNoneMatch == etag) return http.Response('', 304, headers: {'etag': etag});
+    return http.Response(body, 200, headers: {..._jsonHeaders, 'etag': etag});
+  }
+
+  http.Response _updateUser(String id, Map<String, String> fields) {
+    final user = _users[id];
+    if (user == null) return _json(404, {'message': 'User not found'});
+    final email = fields['email'];
+    if (email != null && (_idForEmail(email) ?? id) != id) {
+      return _json(409, {'message': 'Email already in use'});
+    }
+    for (final key in const ['fullName', 'email', 'password']) {
+      if (fields[key]?.isNotEmpty ?? false) user[key] = fields[key]!;
+    }
+    return _json(200, _public(id));
+  }
+
+  http.Response _deleteUser(String id) {
+    if (_users.remove(id) == null) return _json(404, {'message': 'User not found'});
+    return _json(200, {'message': 'User deleted'});
+  }
+
+  http.Response _sendOtp(Map<String, String> fields) {
+    final email = fields['email']?.trim().toLowerCase();
+    if (_idForEmail(email) == null) return _json(404, {'message': 'User not found'});
+    _otps[email!] = otp;
+    _verified.remove(email);
+    return _json(200, {'message': 'OTP sent'});
+  }
+
+  http.Response _verifyOtp(Map<String, String> fields) {
+    final email = fields['email']?.trim().toLowerCase();
+    if (email == null || _otps[email] == null || _otps[email] != fields['otp']) {
+      return _json(400, {'message': 'Invalid OTP'});
+    }
+    _otps.remove(email);
+    _verified.add(email);
+    return _json(200, {'message': 'OTP verified'});
+  }
+
+  http.Response _resetPassword(Map<String, String> fields) {
+    final email = fields['email']?.trim().toLowerCase();
+    final password = fields['newPassword'] ?? '';
+    if (email == null || !_verified.contains(email)) {
+      return _json(400, {'message': 'OTP not verified'});
+    }
+    if (password.isEmpty) return _json(400, {'message': 'Password is required'});
+    _users[_idForEmail(email)!]!['password'] = password;
+    _verified.remove(email);
+    return _json(200, {'message': 'Password reset'});
+  }
+
+  static const Map<String, String> _jsonHeaders = {
+    'content-type': 'application/json; charset=utf-8',
+  };
+
+  http.Response _json(int statusCode, Object body) =>
+      http.Response(jsonEncode(body), statusCode, headers: _jsonHeaders);
+}
@@ -1,23 +1,26 @@
 import 'package:flutter/material.dart';
-import 'package:installed_apps/installed_apps.dart';
-import 'package:android_intent_plus/android_intent.dart';
-import 'package:shared_preferences/shared_preferences.dart';
-import 'package:url_launcher/url_launcher.dart';
-import 'dart:math';
-import 'dart:convert';
+import 'app_asset.dart';
+import 'assets.dart';
 import 'dart:typed_data';
 import 'add_app_screen.dart';
 import 'settings_screen.dart';
 import 'notifications_page.dart';
-import 'package:installed_apps/installed_apps.dart';
-import 'package:installed_apps/app_info.dart';
+import 'notification_store.dart';
 import 'login_screen.dart';
+import 'app_hider.dart';
+import 'app_launcher.dart';
 import 'app_data.dart';
+import 'app_scanner.dart';
+import 'icon_cache.dart';
+import 'selection_repository.dart';
+import 'perf_monitor.dart';
+import 'profile_repository.dart';
 import 'social_app_screen.dart';
+import 'usage_stats.dart';
+import 'widgets/home_background.dart';
+import 'widgets/particle_field.dart';
+import 'widgets/web_layout.dart';
 import 'dart:io';
-import 'package:http/http.dart' as http;
-
-const String baseUrl = 'https://my-backend-production-d82c.up.railway.app';
 
 // Session state management class
 class SessionState {
@@ -29,28 +32,62 @@ class SessionState {
 }
 
 class HomeScreen extends StatefulWidget {
-  const HomeScreen({Key? key}) : super(key: key);
+  /// Whether the glowing particle layer is drawn over the background. Off by
+  /// default: it adds per-frame work the home screen never had.
+  final bool showParticles;
+
+  /// Whether the [PerfOverlay] with live frame and cache numbers is shown.
+  final bool showPerfOverlay;
+
+  const HomeScreen({Key? key, this.showParticles = false, this.showPerfOverlay = false})
+      : super(key: key);
 
   @override
   State<HomeScreen> createState() => _HomeScreenState();
 }
 
-class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateMixin {
-  List<SocialApp> selectedApps = [];
-  late AnimationController _animationController;
-  late Animation<double> _scaleAnimation;
-  late Animation<double> _rotateAnimation;
+class _HomeScreenState extends State<HomeScreen> with WidgetsBindingObserver {
+  /// Launches recorded before usage may reorder the web.
+  static const int _minLaunchesToOrder = 20;
+
+  /// How many of the likeliest launches are warmed ahead of the rest.
+  static const int _warmCount = 3;
+
+  static const double _slotIconSize = 40;
+
+  // Slots are reordered once per process, never under the user's finger.
+  static bool _slotsOrdered = false;
+
   String? userName;
   bool isLoadingName = true;
 
   @override
   void initState() {
     super.initState();
-    _initializeAnimations();
+    PerfMonitor.start();
+    ProfileRepository.profile.addListener(_onProfileChanged);
+    WidgetsBinding.instance.addObserver(this);
     _loadSelectedApps();
     _fetchUserName();
   }
 
+  @override
+  void dispose() {
+    SelectionRepository.apps.removeListener(_onSelectionChanged);
+    ProfileRepository.profile.removeListener(_onProfileChanged);
+    WidgetsBinding.instance.removeObserver(this);
+    super.dispose();
+  }
+
+  // Back from a launched app: re-warm what the next tap most likely needs.
+  @override
+  void didChangeAppLifecycleState(AppLifecycleState state) {
+    if (state == AppLifecycleState.resumed) _warmLikely(SelectionRepository.apps.value);
+  }
+
+  void _onSelectionChanged() => _prepareSlots(SelectionRepository.apps.value);
+
+  // The cached profile shows at once; the repository refreshes it behind.
   Future<void> _fetchUserName() async {
     final userId = UserSession.userId;
     if (userId == null) {
@@ -60,137 +97,101 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
       return;
     }
 
-    try {
-      final url = Uri.parse('$baseUrl/users/$userId');
-      final response = await http.get(url);
-
-      if (response.statusCode == 200) {
-        final data = jsonDecode(response.body);
-        setState(() {
-          userName = data['fullName'];
-          // Update the session data using the proper method
-          UserSession.setUserData(
-              UserSession.userId ?? '', // Keep existing userId
-              data['fullName'] ?? '',  // New name
-              UserSession.userEmail ?? '' // Keep existing email
-          );
-          isLoadingName = false;
-        });
-      } else {
-        debugPrint('Failed to load user: ${response.body}');
-        setState(() => isLoadingName = false);
-      }
-    } catch (e) {
-      debugPrint('Error fetching user name: $e');
+    final cached = await ProfileRepository.open(userId);
+    if (!mounted) return;
+    if (cached != null) {
+      _applyUser(cached);
+    } else {
+      // First run: wait for the server once.
+      await ProfileRepository.refresh(userId);
+      if (!mounted) return;
       setState(() => isLoadingName = false);
     }
   }
 
-  void _initializeAnimations() {
-    _animationController = AnimationController(
-      vsync: this,
-      duration: const Duration(seconds: 100),
-    )..repeat(reverse: true);
-
-    _scaleAnimation = Tween<double>(begin: 1.0, end: 1.1).animate(
-      CurvedAnimation(
-        parent: _animationController,
-        curve: Curves.easeInOut,
-      ),
-    );
+  void _onProfileChanged() {
+    final profile = ProfileRepository.profile.value;
+    if (profile != null && mounted) _applyUser(profile);
+  }
 
-    _rotateAnimation = Tween<double>(begin: 0, end: 2 * pi).animate(
-      CurvedAnimation(
-        parent: _animationController,
-        curve: Curves.linear,
-      ),
-    );
+  void _applyUser(UserProfile profile) {
+    setState(() {
+      userName = profile.fullName;
+      // Update the session data using the proper method
+      UserSession.setUserData(
+          UserSession.userId ?? '', // Keep existing userId
+          profile.fullName,  // New name
+          UserSession.userEmail ?? '' // Keep existing email
+      );
+      isLoadingName = false;
+    });
   }
 
   Future<void> _loadSelectedApps() async {
     try {
-      final prefs = await SharedPreferences.getInstance();
-      final savedAppData = prefs.getStringList('selected_apps_data') ?? [];
-
-      if (Platform.isIOS) {
-        // On iOS, always use the static list
-        setState(() {
-          selectedApps = allSocialApps.take(8).toList();
-        });
-        return;
-      }
-
-      // Check if user is new (no saved apps) and we have installed apps
-      if (savedAppData.isEmpty) {
-        // Get installed apps
-        List<AppInfo> apps = await InstalledApps.getInstalledApps(true, true);
-
-        if (apps.isNotEmpty) {
-          // Auto-select first 5 apps
-          final autoSelectedApps = apps.take(5).map((appInfo) {
-            return SocialApp(
-              name: appInfo.name,
-              icon: appInfo.icon,
-              color: _generateColorFromName(appInfo.name),
-              packageName: appInfo.packageName,
-            );
-          }).toList();
-
-          // Save the auto-selected apps
-          await _saveSelectedApps(autoSelectedApps);
-
-          setState(() {
-            selectedApps = autoSelectedApps;
-          });
+      await SelectionRepository.load();
+      if (!mounted) return;
+      // Listening only from here on keeps the load itself from preparing the
+      // slots a second time; later changes go through the listener.
+      SelectionRepository.apps.addListener(_onSelectionChanged);
+      final savedApps = SelectionRepository.apps.value;
+
+      // Check if user is new (nothing ever saved) and we have installed apps
+      if (savedApps.isEmpty && !SelectionRepository.hasStoredSelection) {
+        // Only the first page is needed; icons are fetched for the picks alone
+        final firstPage = await AppScanner.scan()
+            .firstWhere((_) => true, orElse: () => []);
+
+        if (firstPage.isNotEmpty) {
+          // Auto-select first 5 apps; the repository saves them
+          final autoSelectedApps = await Future.wait(
+            firstPage.take(5).map(AppScanner.withIcon),
+          );
+          SelectionRepository.replace(autoSelectedApps);
           return;
         }
       }
 
-      // Existing user flow
-      setState(() {
-        selectedApps = savedAppData.map((jsonStr) {
-          final data = jsonDecode(jsonStr);
-          return SocialApp(
-            name: data['name'],
-            packageName: data['packageName'],
-            icon: base64Decode(data['icon']),
-            color: Color(data['color']),
+      if (!_slotsOrdered) {
+        _slotsOrdered = true;
+        await UsageStats.load();
+        if (UsageStats.length >= _minLaunchesToOrder) {
+          // Only the slots move; the user's saved order stays as it is.
+          SelectionRepository.showInOrder(
+            UsageStats.rank(savedApps.map((app) => app.packageName).toList()),
           );
-        }).toList();
-      });
-
-      // Fallback to old method if no data in new format
-      if (selectedApps.isEmpty) {
-        final savedAppNames = prefs.getStringList('selected_apps') ?? [];
-        setState(() {
-          selectedApps = allSocialApps.where((app) => savedAppNames.contains(app.name)).toList();
-        });
+        }
       }
+
+      _prepareSlots(savedApps);
     } catch (e) {
       debugPrint('Error loading apps: $e');
     }
   }
 
-  Color _generateColorFromName(String input) {
-    final hash = input.codeUnits.fold(0, (prev, el) => prev + el);
-    final hue = (hash * 37) % 360;
-    return HSLColor.fromAHSL(1.0, hue.toDouble(), 0.6, 0.5).toColor();
+  /// Resolves launch targets and hidden status for every slot in one batch each.
+  /// The likeliest launches go first so they are ready even if the rest is slow.
+  void _prepareSlots(List<SocialApp> apps) {
+    _warmLikely(apps).whenComplete(() => AppLauncher.prepare(apps));
+    AppHider.listen();
+    AppHider.refreshStatus(apps.map((app) => app.packageName).toList());
   }
 
-  Future<void> _saveSelectedApps(List<SocialApp> apps) async {
-    try {
-      final prefs = await SharedPreferences.getInstance();
-      final appData = apps.map((app) => jsonEncode({
-        'name': app.name,
-        'packageName': app.packageName,
-        'icon': base64Encode(app.icon),
-        'color': app.color.value,
-      })).toList();
-
-      await prefs.setStringList('selected_apps_data', appData);
-    } catch (e) {
-      debugPrint('Error saving apps: $e');
+  /// Resolves the launch targets and decodes the slot icons of the
+  /// [_warmCount] apps most likely to be opened now.
+  Future<void> _warmLikely(List<SocialApp> apps) {
+    if (apps.isEmpty || !mounted) return Future.value();
+    final likely = UsageStats.rank(apps.map((app) => app.packageName).toList())
+        .take(_warmCount)
+        .map((packageName) => apps.firstWhere((app) => app.packageName == packageName))
+        .toList();
+
+    final sizePx = (_slotIconSize * MediaQuery.devicePixelRatioOf(context)).round();
+    for (final app in likely) {
+      final icon = app.icon;
+      if (icon is Uint8List) IconCache.warm(app.packageName, icon, sizePx);
     }
+    return AppLauncher.prepare(likely);
   }
 
   Future<bool> _authenticateUser(String email, String password) async {
@@ -378,53 +379,20 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
   }
 
   Future<void> _launchApp(SocialApp app) async {
-    if (Platform.isIOS) {
-      if (app.launchUrls != null) {
-        for (final url in app.launchUrls!) {
-          if (await canLaunchUrl(Uri.parse(url))) {
-            await launchUrl(Uri.parse(url));
-            return;
-          }
-        }
-      }
-      if (app.fallbackUrl != null) {
-        await launchUrl(Uri.parse(app.fallbackUrl!), mode: LaunchMode.externalApplication);
-      } else {
-        ScaffoldMessenger.of(context).showSnackBar(
-          SnackBar(content: Text('App not available')),
-        );
-      }
-      return;
-    }
-    try {
-      final bool? launched = await InstalledApps.startApp(app.packageName);
-      if (launched == null || launched == false) {
-        throw Exception('Failed to launch app');
-      }
-    } catch (e) {
-      debugPrint('Error launching app: ${app.name} - $e');
-      if (mounted) {
-        ScaffoldMessenger.of(context).showSnackBar(
-          SnackBar(content: Text('Could not launch ${app.name}')),
-        );
-      }
+    final launched = await AppLauncher.launch(app);
+    if (!launched && mounted) {
+      ScaffoldMessenger.of(context).showSnackBar(
+        SnackBar(content: Text(Platform.isIOS ? 'App not available' : 'Could not launch ${app.name}')),
+      );
     }
   }
 
+  // The picker edits SelectionRepository directly; affected slots update on their own.
   void _navigateToAddAppsScreen(BuildContext context) {
     Navigator.push(
       context,
-      MaterialPageRoute(
-        builder: (context) => AddAppsScreen(initialSelectedApps: selectedApps),
-      ),
-    ).then((updatedApps) async {
-      if (updatedApps != null && mounted) {
-        await _saveSelectedApps(List<SocialApp>.from(updatedApps));
-        setState(() {
-          selectedApps = List<SocialApp>.from(updatedApps);
-        });
-      }
-    });
+      MaterialPageRoute(builder: (context) => const AddAppsScreen()),
+    );
   }
 
   @override
@@ -433,10 +401,12 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
       backgroundColor: Colors.black,
       body: Stack(
         children: [
-          _buildAnimatedBackground(),
-          _buildGradientOverlays(),
+          const HomeBackground(),
+          if (widget.showParticles) const ParticleField(),
           _buildHeaderSection(),
           _buildSpiderWithApps(),
+          if (widget.showPerfOverlay)
+            const Positioned(left: 8, bottom: 8, child: PerfOverlay()),
         ],
       ),
       floatingActionButton: FloatingActionButton(
@@ -449,61 +419,8 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
     );
   }
 
-  Widget _buildAnimatedBackground() {
-    return AnimatedBuilder(
-      animation: _animationController,
-      builder: (context, child) {
-        return Transform.scale(
-          scale: _scaleAnimation.value,
-          child: Transform.rotate(
-            angle: _rotateAnimation.value,
-            child: Opacity(
-              opacity: 0.7,
-              child: Image.asset(
-                'assets/home/Vector.png',
-                fit: BoxFit.cover,
-                width: double.infinity,
-                height: double.infinity,
-              ),
-            ),
-          ),
-        );
-      },
-    );
-  }
-
-  Widget _buildGradientOverlays() {
-    return Stack(
-      children: [
-        Container(
-          width: double.infinity,
-          height: double.infinity,
-          decoration: const BoxDecoration(
-            gradient: RadialGradient(
-              center: Alignment(1.3, -1.0),
-              radius: 1.5,
-              colors: [Color(0xAAAD1457), Colors.transparent],
-              stops: [0.1, 1.0],
-            ),
-          ),
-        ),
-        Container(
-          width: double.infinity,
-          height: double.infinity,
-          decoration: const BoxDecoration(
-            gradient: RadialGradient(
-              center: Alignment(-1.3, 1.0),
-              radius: 1.5,
-              colors: [Color(0xAA1A237E), Colors.transparent],
-              stops: [0.1, 1.0],
-            ),
-          ),
-        ),
-      ],
-    );
-  }
-
   Widget _buildHeaderSection() {
+    PerfMonitor.countBuild('header');
     return Column(
       children: [
         const SizedBox(height: 60),
@@ -542,7 +459,16 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
                 ],
               ),
               IconButton(
-                icon: const Icon(Icons.notifications, color: Colors.white70),
+                icon: ValueListenableBuilder<int>(
+                  valueListenable: NotificationStore.unreadCount,
+                  builder: (context, unread, bell) => Badge(
+                    isLabelVisible: unread > 0,
+                    label: Text(unread > 99 ? '99+' : '$unread'),
+                    backgroundColor: Colors.pinkAccent,
+                    child: bell,
+                  ),
+                  child: const Icon(Icons.notifications, color: Colors.white70),
+                ),
                 onPressed: () {
                   Navigator.push(
                     context,
@@ -559,6 +485,7 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
     );
   }
   Widget _buildSpiderWithApps() {
+    PerfMonitor.countBuild('spider');
     return Center(
       child: SizedBox(
         width: 300,
@@ -569,10 +496,12 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
           children: [
             Padding(
               padding: const EdgeInsets.only(top: 45),
-              child: Image.asset(
-                'assets/home/Vector (1).png',
-                width: 350,
-                height: 350,
+              child: RepaintBoundary(
+                child: AssetImageView(
+                  Assets.homeVector1,
+                  width: 350,
+                  height: 350,
+                ),
               ),
             ),
             ..._buildSpiderLegsWithIcons(),
@@ -602,7 +531,7 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
                 Navigator.push(
                   context,
                   MaterialPageRoute(
-                    builder: (context) => SettingsScreen(selectedApps: selectedApps),
+                    builder: (context) => const SettingsScreen(),
                   ),
                 );
               },
@@ -613,68 +542,27 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
     );
   }
 
+  // Each slot listens to its own entry, so adding or removing one app
+  // rebuilds one leg instead of the whole web.
   List<Widget> _buildSpiderLegsWithIcons() {
-    const double radius = 120;
-    const double centerX = 150;
-    const double centerY = 150;
-
-    return List.generate(8, (index) {
-      final position = _calculateLegPosition(index, centerX, centerY);
-
-      if (index < selectedApps.length) {
-        return _buildAppIcon(
-          position.dx,
-          position.dy,
-          selectedApps[index],
-          index,
-        );
-      } else {
-        return _buildEmptySlot(
-          position.dx,
-          position.dy,
-          _getLegColor(index),
-          index,
-        );
-      }
-    });
-  }
+    final centers = WebLayout.slotCenters(SelectionRepository.maxSlots);
 
-  Color _getLegColor(int index) {
-    final colors = [
-      Colors.blue,
-      Colors.red,
-      Colors.yellow,
-      Colors.lightBlueAccent,
-      Colors.pink,
-      Colors.orange,
-      Colors.purple,
-      Colors.green,
-    ];
-    return colors[index % colors.length];
-  }
+    return List.generate(SelectionRepository.maxSlots, (index) {
+      final position = centers[index];
 
-  Offset _calculateLegPosition(int index, double centerX, double centerY) {
-    double angle = (2 * pi / 8) * index;
-    double x = centerX + 120 * cos(angle);
-    double y = centerY + 120 * sin(angle);
-
-    switch (index) {
-      case 0: return Offset(x - 55, y - 90);
-      case 1: return Offset(x + 5, y - 14);
-      case 2: return Offset(x + 45, y - 20);
-      case 3: return Offset(x + 35, y + 10);
-      case 4: return Offset(x + 33, y + 60);
-      case 5: return Offset(x + 35, y);
-      case 6: return Offset(x - 18, y + 2);
-      case 7: return Offset(x - 55, y - 30);
-      default: return Offset(x, y);
-    }
+      return ValueListenableBuilder<SocialApp?>(
+        valueListenable: SelectionRepository.slot(index),
+        builder: (context, app, _) => app != null
+            ? _buildAppIcon(position.dx, position.dy, app, index)
+            : _buildEmptySlot(position.dx, position.dy, WebLayout.legColor(index), index),
+      );
+    });
   }
 
   Widget _buildAppIcon(double x, double y, SocialApp app, int index) {
     return Positioned(
-      left: x - 20,
-      top: y - 20,
+      left: x - GlowSlot.extent / 2,
+      top: y - GlowSlot.extent / 2,
       child: TweenAnimationBuilder(
         duration: Duration(milliseconds: 500 + (index * 100)),
         tween: Tween<double>(begin: 0, end: 1),
@@ -685,29 +573,28 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
             child: Opacity(opacity: value, child: child),
           );
         },
-        child: Material(
-          color: Colors.transparent,
-          child: InkWell(
-            onTap: () async {
-              final shouldProceed = await _showLoginDialog(context, app.name);
-              if (shouldProceed && mounted) await _launchApp(app);
-            },
-            borderRadius: BorderRadius.circular(20),
-            child: Container(
-              width: 40,
-              height: 40,
-              decoration: BoxDecoration(
-                shape: BoxShape.circle,
-                color: app.color.withOpacity(0.6),
-                boxShadow: [
-                  BoxShadow(
-                    color: app.color.withOpacity(0.8),
-                    blurRadius: 10,
-                    spreadRadius: 2,
-                  ),
-                ],
+        child: RepaintBoundary(
+          child: GlowSlot(
+            color: app.color,
+            fillOpacity: 0.6,
+            glowOpacity: 0.8,
+            child: Material(
+              color: Colors.transparent,
+              shape: const CircleBorder(),
+              child: InkWell(
+                onTap: () async {
+                  final shouldProceed = await _showLoginDialog(context, app.name);
+                  if (shouldProceed && mounted) await _launchApp(app);
+                },
+                customBorder: const CircleBorder(),
+                child: Stack(
+                  alignment: Alignment.center,
+                  children: [
+                    Platform.isIOS ? Icon(app.icon) : app.getIconWidget(size: _slotIconSize),
+                    Positioned(right: 0, bottom: 0, child: _HiddenBadge(app.packageName)),
+                  ],
+                ),
               ),
-              child: Center(child: Platform.isIOS ? Icon(app.icon) : Image.memory(app.icon)),
             ),
           ),
         ),
@@ -717,8 +604,8 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
 
   Widget _buildEmptySlot(double x, double y, Color color, int index) {
     return Positioned(
-      left: x - 20,
-      top: y - 20,
+      left: x - GlowSlot.extent / 2,
+      top: y - GlowSlot.extent / 2,
       child: TweenAnimationBuilder(
         duration: Duration(milliseconds: 500 + (index * 100)),
         tween: Tween<double>(begin: 0, end: 1),
@@ -729,31 +616,20 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
             child: Opacity(opacity: value, child: child),
           );
         },
-        child: Container(
-          width: 40,
-          height: 40,
-          decoration: BoxDecoration(
-            shape: BoxShape.circle,
-            color: color.withOpacity(0.4),
-            boxShadow: [
-              BoxShadow(
-                color: color.withOpacity(0.7),
-                blurRadius: 10,
-                spreadRadius: 2,
-              ),
-            ],
-          ),
-          child: Center(
-            child: Text(
-              '+',
-              style: TextStyle(
-                color: Colors.white,
-                fontSize: 24,
-                fontWeight: FontWeight.bold,
-                shadows: [
-                  Shadow(color: color, blurRadius: 15),
-                  Shadow(color: color.withOpacity(0.5), blurRadius: 25),
-                ],
+        child: RepaintBoundary(
+          child: GlowSlot(
+            color: color,
+            fillOpacity: 0.4,
+            glowOpacity: 0.7,
+            plusGlow: true,
+            child: const Center(
+              child: Text(
+                '+',
+                style: TextStyle(
+                  color: Colors.white,
+                  fontSize: 24,
+                  fontWeight: FontWeight.bold,
+                ),
               ),
             ),
           ),
@@ -761,10 +637,21 @@ class _HomeScreenState extends State<HomeScreen> with SingleTickerProviderStateM
       ),
     );
   }
+}
+
+/// Marks a slot whose original app is hidden on the device.
+class _HiddenBadge extends StatelessWidget {
+  final String packageName;
+
+  const _HiddenBadge(this.packageName);
 
   @override
-  void dispose() {
-    _animationController.dispose();
-    super.dispose();
+  Widget build(BuildContext context) {
+    return ValueListenableBuilder<Map<String, bool>>(
+      valueListenable: AppHider.status,
+      builder: (context, status, _) => status[packageName] == true
+          ? const Icon(Icons.visibility_off, size: 12, color: Colors.white70)
+          : const SizedBox.shrink(),
+    );
   }
-}
\ No newline at end of file
+}
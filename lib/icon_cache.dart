@@ -0,0 +1,121 @@
+import 'dart:collection';
+import 'dart:typed_data';
+import 'dart:ui' as ui;
+import 'package:flutter/foundation.dart';
+
+/// Process-wide cache of decoded app icons.
+///
+/// Icons are decoded once per package and target size, already scaled down
+/// to the pixel size they are drawn at, and kept in an LRU bounded by
+/// [maxBytes]. Callers always receive their own [ui.Image.clone] and must
+/// dispose it; the cache disposes its own handle when an entry is evicted.
+class IconCache {
+  static int maxBytes = 8 * 1024 * 1024;
+
+  static final LinkedHashMap<String, ui.Image> _images = LinkedHashMap();
+  static final Map<String, Future<ui.Image?>> _inFlight = {};
+  static int _bytes = 0;
+
+  static int hits = 0;
+  static int misses = 0;
+  static int decodes = 0;
+
+  static int get currentBytes => _bytes;
+  static int get length => _images.length;
+
+  static String _key(String packageName, int sizePx) => '$packageName@$sizePx';
+
+  /// Returns a clone of the cached icon, or null if it has not been decoded.
+  static ui.Image? peek(String packageName, int sizePx) {
+    final key = _key(packageName, sizePx);
+    final image = _images.remove(key);
+    if (image == null) return null;
+
+    // Re-insert to mark as most recently used.
+    _images[key] = image;
+    hits++;
+    return image.clone();
+  }
+
+  /// Decodes [bytes] at [sizePx] x [sizePx] unless already cached.
+  ///
+  /// Concurrent requests for the same key share one decode.
+  static Future<ui.Image?> resolve(String packageName, Uint8List bytes, int sizePx) async {
+    final cached = peek(packageName, sizePx);
+    if (cached != null) return cached;
+
+    final key = _key(packageName, sizePx);
+    misses++;
+    final image = await (_inFlight[key] ??= _decode(key, bytes, sizePx));
+    return image?.clone();
+  }
+
+  /// Decodes [bytes] into the cache ahead of use; a no-op when cached.
+  /// Not counted as a hit or miss.
+  static Future<void> warm(String packageName, Uint8List bytes, int sizePx) async {
+    final key = _key(packageName, sizePx);
+    if (_images.containsKey(key)) return;
+    await (_inFlight[key] ??= _decode(key, bytes, sizePx));
+  }
+
+  static Future<ui.Image?> _decode(String key, Uint8List bytes, int sizePx) async {
+    try {
+      decodes++;
+      final codec = await ui.instantiateImageCodec(
+        bytes,
+        targetWidth: sizePx,
+        targetHeight: sizePx,
+      );
+      final frame = await codec.getNextFrame();
+      codec.dispose();
+      _put(key, frame.image);
+      return frame.image;
+    } catch (e) {
+      debugPrint('Error decoding icon $key: $e');
+      return null;
+    } finally {
+      _inFlight.remove(key);
+    }
+  }
+
+  static void _put(String key, ui.Image image) {
+    final previous = _images.remove(key);
+    if (previous != null) _release(previous);
+
+    _images[key] = image;
+    _bytes += _sizeOf(image);
+    trimTo(maxBytes);
+  }
+
+  /// Evicts least recently used icons until the cache holds at most [bytes].
+  static void trimTo(int bytes) {
+    while (_bytes > bytes && _images.isNotEmpty) {
+      final oldest = _images.keys.first;
+      _release(_images.remove(oldest)!);
+    }
+  }
+
+  /// Drops every size of [packageName], e.g. after the app was updated, or
+  /// only the [sizePx] copy when a single view lets go of it.
+  static void evict(String packageName, {int? sizePx}) {
+    if (sizePx != null) {
+      final image = _images.remove(_key(packageName, sizePx));
+      if (image != null) _release(image);
+      return;
+    }
+    final prefix = '$packageName@';
+    final keys = _images.keys.where((k) => k.startsWith(prefix)).toList();
+    for (final key in keys) {
+      _release(_images.remove(key)!);
+    }
+  }
+
+  static void clear() => trimTo(0);
+
+  static void _release(ui.Image image) {
+    _bytes -= _sizeOf(image);
+    image.dispose();
+  }
+
+  static int _sizeOf(ui.Image image) => image.width * image.height * 4;
+}
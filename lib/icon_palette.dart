@@ -0,0 +1,221 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:io';
+import 'dart:typed_data';
+import 'dart:ui' as ui;
+import 'package:flutter/foundation.dart';
+import 'package:flutter/material.dart';
+import 'package:path_provider/path_provider.dart';
+
+/// Picks a glow color for each app from its actual icon.
+///
+/// Icons are decoded at [sampleSize] x [sampleSize]. The decode runs on the
+/// engine's image threads. The tiny RGBA buffers are then quantized in a
+/// background isolate. Requests made in the same frame are sent as one batch,
+/// so a scan of hundreds of icons costs a handful of isolate hops. Results are
+/// cached per package and icon version (a hash of the icon bytes) in memory
+/// and in `<app support>/palette.json`. Only the newest icon version of each
+/// package is kept, and at most [maxEntries] packages, oldest first out.
+class IconPalette {
+  static const int sampleSize = 24;
+  static const int maxEntries = 512;
+
+  // Insertion ordered, so the first entries are the oldest.
+  static final Map<String, int> _colors = {};
+  static final Map<String, Future<Color?>> _inFlight = {};
+  static final List<_PaletteRequest> _queue = [];
+  static Future<void>? _loading;
+  static Timer? _batchTimer;
+  static Timer? _persistTimer;
+  static File? _file;
+
+  /// Cached color of [packageName]'s current icon, if already extracted.
+  static Color? peek(String packageName, Uint8List? icon) {
+    if (icon == null) return null;
+    final value = _colors[_key(packageName, icon)];
+    return value == null ? null : Color(value);
+  }
+
+  /// Extracts the color of [icon], or returns the cached one.
+  static Future<Color?> colorOf(String packageName, Uint8List icon) async {
+    await (_loading ??= _load());
+    final key = _key(packageName, icon);
+    final cached = _colors[key];
+    if (cached != null) return Color(cached);
+
+    return _inFlight[key] ??= () {
+      final request = _PaletteRequest(key, icon);
+      _queue.add(request);
+      _batchTimer ??= Timer(Duration.zero, _runBatch);
+      return request.completer.future.whenComplete(() => _inFlight.remove(key));
+    }();
+  }
+
+  static Future<void> _runBatch() async {
+    _batchTimer = null;
+    final batch = List.of(_queue);
+    _queue.clear();
+
+    try {
+      final samples = await Future.wait(batch.map((r) => _sample(r.icon)));
+      final results = await compute(_quantizeAll, samples);
+
+      for (var i = 0; i < batch.length; i++) {
+        final value = results[i];
+        if (value != null) _store(batch[i].key, value);
+        batch[i].completer.complete(value == null ? null : Color(value));
+      }
+    } catch (e) {
+      debugPrint('Error extracting icon colors: $e');
+      // Callers fall back to their default color rather than wait forever.
+      for (final request in batch) {
+        if (!request.completer.isCompleted) request.completer.complete(null);
+      }
+      return;
+    }
+    _persistTimer?.cancel();
+    _persistTimer = Timer(const Duration(seconds: 1), _persist);
+  }
+
+  // Replaces any older icon version of the same package and drops the
+  // oldest packages beyond [maxEntries].
+  static void _store(String key, int value) {
+    final package = _packageOf(key);
+    _colors
+      ..removeWhere((k, _) => _packageOf(k) == package)
+      ..[key] = value;
+    while (_colors.length > maxEntries) {
+      _colors.remove(_colors.keys.first);
+    }
+  }
+
+  static String _packageOf(String key) => key.substring(0, key.lastIndexOf('@'));
+
+  /// Decodes [icon] into a [sampleSize]-square RGBA buffer, or null.
+  static Future<Uint8List?> _sample(Uint8List icon) async {
+    try {
+      final codec = await ui.instantiateImageCodec(
+        icon,
+        targetWidth: sampleSize,
+        targetHeight: sampleSize,
+      );
+      final frame = await codec.getNextFrame();
+      codec.dispose();
+      final data = await frame.image.toByteData(format: ui.ImageByteFormat.rawRgba);
+      frame.image.dispose();
+      return data?.buffer.asUint8List();
+    } catch (e) {
+      debugPrint('Error sampling icon: $e');
+      return null;
+    }
+  }
+
+  // Package name plus an FNV-1a hash of the icon's length and a strided
+  // sample of its bytes, so an updated icon gets a new entry without hashing
+  // every byte on the UI thread.
+  static String _key(String packageName, Uint8List icon) {
+    var hash = (0x811c9dc5 ^ icon.length) * 0x01000193 & 0xffffffff;
+    for (var i = 0; i < icon.length; i += 61) {
+      hash ^= icon[i];
+      hash = (hash * 0x01000193) & 0xffffffff;
+    }
+    return '$packageName@${hash.toRadixString(16)}';
+  }
+
+  static Future<File> _target() async {
+    if (_file != null) return _file!;
+    final support = await getApplicationSupportDirectory();
+    return _file = File('${support.path}/palette.json');
+  }
+
+  static Future<void> _load() async {
+    try {
+      final file = await _target();
+      if (!await file.exists()) return;
+      final decoded = jsonDecode(await file.readAsString()) as Map<String, dynamic>;
+      decoded.forEach((key, value) {
+        if (!_colors.containsKey(key)) _store(key, value as int);
+      });
+    } catch (e) {
+      debugPrint('Error loading icon palette: $e');
+    }
+  }
+
+  static Future<void> _persist() async {
+    try {
+      final file = await _target();
+      final tmp = File('${file.path}.tmp');
+      await tmp.writeAsString(jsonEncode(_colors), flush: true);
+      await tmp.rename(file.path);
+    } catch (e) {
+      debugPrint('Error saving icon palette: $e');
+    }
+  }
+}
+
+class _PaletteRequest {
+  final String key;
+  final Uint8List icon;
+  final Completer<Color?> completer = Completer();
+
+  _PaletteRequest(this.key, this.icon);
+}
+
+/// Isolate entry point: one ARGB value (or null) per RGBA buffer.
+List<int?> _quantizeAll(List<Uint8List?> samples) => samples.map(_quantize).toList();
+
+/// Buckets opaque pixels into a 4-bit-per-channel histogram and returns the
+/// average color of the best bucket, favoring saturated, mid-light colors
+/// over the white, black and grey that surround most launcher icons.
+int? _quantize(Uint8List? rgba) {
+  if (rgba == null) return null;
+
+  final counts = Int32List(4096);
+  final sums = Int32List(4096 * 3);
+  var opaque = 0;
+
+  for (var i = 0; i + 3 < rgba.length; i += 4) {
+    if (rgba[i + 3] < 128) continue;
+    final r = rgba[i], g = rgba[i + 1], b = rgba[i + 2];
+    final bin = ((r >> 4) << 8) | ((g >> 4) << 4) | (b >> 4);
+    counts[bin]++;
+    sums[bin * 3] += r;
+    sums[bin * 3 + 1] += g;
+    sums[bin * 3 + 2] += b;
+    opaque++;
+  }
+  if (opaque == 0) return null;
+
+  var bestBin = -1;
+  var bestScore = 0.0;
+  var commonBin = 0;
+
+  for (var bin = 0; bin < counts.length; bin++) {
+    final count = counts[bin];
+    if (count == 0) continue;
+    if (count > counts[commonBin]) commonBin = bin;
+
+    final r = sums[bin * 3] / count / 255;
+    final g = sums[bin * 3 + 1] / count / 255;
+    final b = sums[bin * 3 + 2] / count / 255;
+    final maxC = [r, g, b].reduce((a, c) => a > c ? a : c);
+    final minC = [r, g, b].reduce((a, c) => a < c ? a : c);
+    final lightness = (maxC + minC) / 2;
+    final chroma = maxC - minC;
+    if (chroma < 0.15 || lightness < 0.15 || lightness > 0.9) continue;
+
+    final score = count * chroma * (1 - (lightness - 0.5).abs());
+    if (score > bestScore) {
+      bestScore = score;
+      bestBin = bin;
+    }
+  }
+
+  // Monochrome icons fall back to their most common color.
+  final bin = bestBin == -1 ? commonBin : bestBin;
+  final count = counts[bin];
+  final r = sums[bin * 3] ~/ count;
+  final g = sums[bin * 3 + 1] ~/ count;
+  final b = sums[bin * 3 + 2] ~/ count;
+  return 0xff000000 | (r << 16) | (g << 8) | b;
+}
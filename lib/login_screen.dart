@@ -1,12 +1,13 @@
 import 'package:flutter/material.dart';
-import 'package:http/http.dart' as http;
+import 'app_asset.dart';
+import 'assets.dart';
 import 'dart:convert';
+import 'api_client.dart';
 import 'package:spider/signup_screen.dart';
 import 'ForgotPasswordScreen.dart';
 import 'home_screen.dart';
-import 'package:shared_preferences/shared_preferences.dart';
-
-const String baseUrl = 'https://my-backend-production-d82c.up.railway.app';
+import 'pref_store.dart';
+import 'profile_repository.dart';
 
 class UserSession {
   static String? _userId;
@@ -27,19 +28,12 @@ class UserSession {
   }
 
   static Future<void> clear() async {
-    final prefs = await SharedPreferences.getInstance();
-    await prefs.remove('is_logged_in');
-    await prefs.remove('rememberMe');
-    await prefs.remove('savedEmail');
-    await prefs.remove('savedPassword');
-
-    // Clear all app-specific authentication flags
-    final keys = prefs.getKeys();
-    for (String key in keys) {
-      if (key.startsWith('auth_')) {
-        await prefs.remove(key);
-      }
-    }
+    await PrefStore.load();
+    // One edit, one write: the session keys plus all app-specific auth flags
+    const sessionKeys = {'is_logged_in', 'rememberMe', 'savedEmail', 'savedPassword'};
+    PrefStore.removeWhere((key) => sessionKeys.contains(key) || key.startsWith('auth_'));
+    await PrefStore.flush();
+    await ProfileRepository.clear();
 
     _userId = null;
     _userName = null;
@@ -48,8 +42,8 @@ class UserSession {
   }
 
   static Future<void> checkLoginStatus() async {
-    final prefs = await SharedPreferences.getInstance();
-    _isLoggedIn = prefs.getBool('is_logged_in') ?? false;
+    await PrefStore.load();
+    _isLoggedIn = PrefStore.getBool('is_logged_in') ?? false;
   }
 }
 
@@ -90,12 +84,12 @@ class _LoginScreenState extends State<LoginScreen> {
 
   Future<void> _loadSavedCredentials() async {
     try {
-      final prefs = await SharedPreferences.getInstance();
-      final shouldRemember = prefs.getBool(_rememberMeKey) ?? false;
+      await PrefStore.load();
+      final shouldRemember = PrefStore.getBool(_rememberMeKey) ?? false;
 
       if (shouldRemember) {
-        final savedEmail = prefs.getString(_emailKey);
-        final savedPassword = prefs.getString(_passwordKey);
+        final savedEmail = PrefStore.getString(_emailKey);
+        final savedPassword = PrefStore.getString(_passwordKey);
 
         if (savedEmail != null && savedPassword != null) {
           setState(() {
@@ -110,34 +104,21 @@ class _LoginScreenState extends State<LoginScreen> {
     }
   }
 
+  // A single edit; PrefStore writes it behind the navigation to home.
   Future<void> _saveCredentials() async {
     try {
-      final prefs = await SharedPreferences.getInstance();
-      await prefs.setBool(_isLoggedInKey, true);
-
-      if (rememberMe) {
-        await prefs.setBool(_rememberMeKey, true);
-        await prefs.setString(_emailKey, emailController.text.trim());
-        await prefs.setString(_passwordKey, passwordController.text);
-      } else {
-        await _clearSavedCredentials();
-      }
+      await PrefStore.load();
+      PrefStore.setAll({
+        _isLoggedInKey: true,
+        _rememberMeKey: rememberMe ? true : null,
+        _emailKey: rememberMe ? emailController.text.trim() : null,
+        _passwordKey: rememberMe ? passwordController.text : null,
+      });
     } catch (e) {
       debugPrint('Error saving credentials: $e');
     }
   }
 
-  Future<void> _clearSavedCredentials() async {
-    try {
-      final prefs = await SharedPreferences.getInstance();
-      await prefs.remove(_rememberMeKey);
-      await prefs.remove(_emailKey);
-      await prefs.remove(_passwordKey);
-    } catch (e) {
-      debugPrint('Error clearing credentials: $e');
-    }
-  }
-
   Future<void> loginUser() async {
     if (!_formKey.currentState!.validate()) return;
 
@@ -146,15 +127,10 @@ class _LoginScreenState extends State<LoginScreen> {
     });
 
     try {
-      final url = Uri.parse('$baseUrl/login');
-      final response = await http.post(
-        url,
-        headers: {'Content-Type': 'application/json'},
-        body: jsonEncode({
-          'email': emailController.text.trim(),
-          'password': passwordController.text,
-        }),
-      );
+      final response = await ApiClient.instance.post('/login', {
+        'email': emailController.text.trim(),
+        'password': passwordController.text,
+      });
 
       final responseData = jsonDecode(response.body);
       debugPrint('Full Login Response: $responseData');
@@ -236,9 +212,9 @@ class _LoginScreenState extends State<LoginScreen> {
           Container(
             width: double.infinity,
             height: double.infinity,
-            decoration: const BoxDecoration(
+            decoration: BoxDecoration(
               image: DecorationImage(
-                image: AssetImage('assets/splash/image 1-2.png'),
+                image: Assets.splashImage1.fullScreen(context),
                 fit: BoxFit.cover,
               ),
             ),
@@ -302,7 +278,7 @@ class _LoginScreenState extends State<LoginScreen> {
                   key: _formKey,
                   child: Column(
                     children: [
-                      Image.asset('assets/splash/Group 1410092262.png', height: 100),
+                      AssetImageView(Assets.splashGroup1410092262, height: 100),
                       const SizedBox(height: 70),
                       Card(
                         shape: RoundedRectangleBorder(
@@ -1,10 +1,27 @@
+import 'dart:async';
 import 'package:flutter/material.dart';
-import 'package:flutter/services.dart';
+import 'animation_scheduler.dart';
+import 'api_client.dart';
+import 'app_asset.dart';
+import 'assets.dart';
 
+import 'bootstrap.dart';
+import 'fake_backend.dart';
 import 'onboard.dart';
 
 void main() {
    WidgetsFlutterBinding.ensureInitialized();
+   // `--dart-define=FAKE_BACKEND=slow3g` (or ideal, wifi, lossy) runs the app
+   // against the in-process fake backend instead of the real server.
+   if (const bool.hasEnvironment('FAKE_BACKEND')) {
+     const network = String.fromEnvironment('FAKE_BACKEND');
+     ApiClient.configure(
+       client: FakeBackend.demo(
+         conditions: NetworkConditions.presets[network] ?? NetworkConditions.ideal,
+       ),
+     );
+   }
+   AppBootstrap.start();
    runApp(const MyApp());
 }
 
@@ -15,6 +32,7 @@ class MyApp extends StatelessWidget {
   Widget build(BuildContext context) {
     return MaterialApp(
       debugShowCheckedModeBanner: false,
+      navigatorObservers: [AnimationScheduler.routeObserver],
       home: const InitialBlackScreen(),
     );
   }
@@ -52,18 +70,22 @@ class _SplashWithSequenceState extends State<SplashWithSequence>
   int _currentStage = 0;
   bool _showFourthImage = false;
   bool _showFifthImage = false;
+  bool _started = false;
+  final List<Timer> _stageTimers = [];
 
   late AnimationController _animationController;
   late Animation<Alignment> _alignmentAnimation;
 
-  final List<String> _centerImagePaths = [
-    'assets/splash/Group 1410092258-1.png',
-    'assets/splash/Group 1410092258-2.png',
-    'assets/splash/Group 1410092258-3.png',
+  static const double _imageSize = 200;
+
+  final List<AppAsset> _centerImages = const [
+    Assets.splashGroup1410092258_1,
+    Assets.splashGroup1410092258_2,
+    Assets.splashGroup1410092258_3,
   ];
 
-  final String _fourthImagePath = 'assets/splash/Group 1410092262.png';
-  final String _fifthImagePath = 'assets/splash/Group 1410092258-5.png';
+  final AppAsset _fourthImage = Assets.splashGroup1410092262;
+  final AppAsset _fifthImage = Assets.splashGroup1410092258_5;
 
   @override
   void initState() {
@@ -81,30 +103,64 @@ class _SplashWithSequenceState extends State<SplashWithSequence>
       parent: _animationController,
       curve: Curves.easeInOut,
     ));
+  }
+
+  @override
+  void didChangeDependencies() {
+    super.didChangeDependencies();
+    if (_started) return;
+    _started = true;
+
+    // Home images decode in parallel with the splash animation.
+    AppBootstrap.warmUp(context);
 
     _preloadAssets().then((_) {
+      if (!mounted) return;
       setState(() => _assetsPreloaded = true);
-      Future.delayed(const Duration(seconds: 2), () => setState(() => _currentStage = 1));
-      Future.delayed(const Duration(seconds: 3), () => setState(() => _currentStage = 2));
-      Future.delayed(const Duration(seconds: 5), () => setState(() => _showFourthImage = true));
-      Future.delayed(const Duration(seconds: 7), () {
-        setState(() {
-          _showFifthImage = true;
-          _currentStage = 3;
-        });
-        _animationController.forward().then((_) {
-          // Navigate to OnboardingPager directly
-          Navigator.pushReplacement(
-            context,
-            MaterialPageRoute(builder: (context) =>  OnboardingPager()),
-          );
-        });
-      });
+
+      if (AppBootstrap.canSkipSplash) {
+        _finish();
+        return;
+      }
+      _scheduleStage(const Duration(seconds: 2), () => _currentStage = 1);
+      _scheduleStage(const Duration(seconds: 3), () => _currentStage = 2);
+      _scheduleStage(const Duration(seconds: 5), () => _showFourthImage = true);
+      _stageTimers.add(Timer(const Duration(seconds: 7), _finish));
+    });
+  }
+
+  void _scheduleStage(Duration delay, VoidCallback change) {
+    _stageTimers.add(Timer(delay, () {
+      if (mounted) setState(change);
+    }));
+  }
+
+  void _finish() {
+    if (!mounted) return;
+    setState(() {
+      _showFourthImage = true;
+      _showFifthImage = true;
+      _currentStage = 3;
+    });
+    _animationController.forward().then((_) async {
+      // Session and selected apps are normally ready long before this.
+      await AppBootstrap.ready;
+      if (!mounted) return;
+
+      // Navigate to OnboardingPager directly
+      Navigator.pushReplacement(
+        context,
+        MaterialPageRoute(builder: (context) =>  OnboardingPager()),
+      );
+      WidgetsBinding.instance.addPostFrameCallback((_) => AppBootstrap.markInteractive());
     });
   }
 
   @override
   void dispose() {
+    for (final timer in _stageTimers) {
+      timer.cancel();
+    }
     _animationController.dispose();
     super.dispose();
   }
@@ -112,12 +168,12 @@ class _SplashWithSequenceState extends State<SplashWithSequence>
   Future<void> _preloadAssets() async {
     try {
       await Future.wait([
-        ..._centerImagePaths.map((path) => precacheImage(AssetImage(path), context)),
-        precacheImage(AssetImage(_fourthImagePath), context),
-        precacheImage(AssetImage(_fifthImagePath), context),
-        ..._centerImagePaths.map((path) => rootBundle.load(path)),
-        rootBundle.load(_fourthImagePath),
-        rootBundle.load(_fifthImagePath),
+        for (final asset in [..._centerImages, _fourthImage, _fifthImage])
+          precacheImage(
+            asset.provider(context, width: _imageSize, height: _imageSize),
+            context,
+          ),
+        precacheImage(Assets.splashImage1.fullScreen(context), context),
       ]);
     } catch (e) {
       debugPrint('Error preloading assets: $e');
@@ -139,7 +195,7 @@ class _SplashWithSequenceState extends State<SplashWithSequence>
               transitionBuilder: (child, animation) {
                 return FadeTransition(opacity: animation, child: child);
               },
-              child: _buildCenterImage(_centerImagePaths[_currentStage]),
+              child: _buildCenterImage(_centerImages[_currentStage]),
             ),
 
           if (_showFifthImage)
@@ -147,10 +203,10 @@ class _SplashWithSequenceState extends State<SplashWithSequence>
               opacity: 1.0,
               duration: const Duration(milliseconds: 700),
               child: Center(
-                child: Image.asset(
-                  _fifthImagePath,
-                  width: 200,
-                  height: 200,
+                child: AssetImageView(
+                  _fifthImage,
+                  width: _imageSize,
+                  height: _imageSize,
                   filterQuality: FilterQuality.high,
                 ),
               ),
@@ -159,10 +215,10 @@ class _SplashWithSequenceState extends State<SplashWithSequence>
           if (_showFourthImage)
             AlignTransition(
               alignment: _alignmentAnimation,
-              child: Image.asset(
-                _fourthImagePath,
-                width: 200,
-                height: 200,
+              child: AssetImageView(
+                _fourthImage,
+                width: _imageSize,
+                height: _imageSize,
                 filterQuality: FilterQuality.high,
               ),
             ),
@@ -172,17 +228,17 @@ class _SplashWithSequenceState extends State<SplashWithSequence>
     );
   }
 
-  Widget _buildCenterImage(String path) {
+  Widget _buildCenterImage(AppAsset asset) {
     return Center(
-      key: ValueKey<String>(path),
-      child: Image.asset(
-        path,
-        width: 200,
-        height: 200,
+      key: ValueKey<String>(asset.path),
+      child: AssetImageView(
+        asset,
+        width: _imageSize,
+        height: _imageSize,
         filterQuality: FilterQuality.high,
         errorBuilder: (context, error, stackTrace) {
           return Text(
-            'Failed to load ${path.split('/').last}',
+            'Failed to load ${asset.path.split('/').last}',
             style: const TextStyle(color: Colors.white),
           );
         },
@@ -194,8 +250,8 @@ class _SplashWithSequenceState extends State<SplashWithSequence>
     return Stack(
       children: [
         SizedBox.expand(
-          child: Image.asset(
-            'assets/splash/image 1-2.png',
+          child: AssetImageView(
+            Assets.splashImage1,
             fit: BoxFit.cover,
           ),
         ),
@@ -0,0 +1,140 @@
+import 'dart:typed_data';
+import 'package:flutter/material.dart';
+import 'app_index.dart';
+import 'app_scanner.dart';
+import 'device_profile.dart';
+import 'icon_cache.dart';
+import 'selection_repository.dart';
+
+/// One budgeted cache the [MemoryGovernor] accounts for and can shrink.
+class MemoryPool {
+  final String name;
+
+  /// Bytes currently held.
+  final int Function() bytes;
+
+  /// The most the pool may hold while the app is in use, or null if it is
+  /// not bounded (e.g. the apps on the web, which are always needed).
+  final int? Function() budget;
+
+  /// What the pool is trimmed to under memory pressure or in the background.
+  final int floor;
+
+  final void Function(int bytes)? trimTo;
+
+  const MemoryPool({
+    required this.name,
+    required this.bytes,
+    required this.budget,
+    this.floor = 0,
+    this.trimTo,
+  });
+
+  Map<String, int?> toJson() => {'bytes': bytes(), 'budget': budget(), 'floor': floor};
+}
+
+/// Keeps the launcher's caches inside budgets sized for the device.
+///
+/// Budgets are smaller on [DeviceTier.low] devices. When the OS reports
+/// memory pressure, or the app goes to the background where a small
+/// footprint keeps it from being killed first, every pool is trimmed to its
+/// floor; the floors keep just what the web needs to redraw without a
+/// visible reload. [usage] reports every pool for the perf report.
+class MemoryGovernor {
+  static final List<MemoryPool> _pools = [];
+  static _MemoryObserver? _observer;
+  static int trims = 0;
+
+  static List<MemoryPool> get pools => List.unmodifiable(_pools);
+
+  static void ensureInitialized() {
+    if (_observer != null) return;
+    _observer = _MemoryObserver();
+    WidgetsBinding.instance.addObserver(_observer!);
+
+    _pools.addAll([
+      MemoryPool(
+        name: 'decodedIcons',
+        bytes: () => IconCache.currentBytes,
+        budget: () => IconCache.maxBytes,
+        // The web's eight slot icons at up to 3x.
+        floor: 512 * 1024,
+        trimTo: IconCache.trimTo,
+      ),
+      MemoryPool(
+        name: 'iconBytes',
+        bytes: () => AppScanner.iconBytes,
+        budget: () => AppScanner.maxIconBytes,
+        trimTo: AppScanner.trimIcons,
+      ),
+      MemoryPool(
+        name: 'scanIndex',
+        bytes: () => InstalledAppIndex.approximateBytes,
+        budget: () => null,
+        trimTo: (_) => InstalledAppIndex.release(),
+      ),
+      MemoryPool(
+        name: 'imageCache',
+        bytes: () => PaintingBinding.instance.imageCache.currentSizeBytes,
+        budget: () => PaintingBinding.instance.imageCache.maximumSizeBytes,
+        trimTo: _trimImageCache,
+      ),
+      MemoryPool(
+        name: 'webIcons',
+        bytes: () => SelectionRepository.apps.value.fold(
+            0, (sum, app) => sum + (app.icon is Uint8List ? (app.icon as Uint8List).length : 0)),
+        budget: () => null,
+      ),
+    ]);
+
+    DeviceProfile.load().then((_) => _applyBudgets());
+  }
+
+  static void _applyBudgets() {
+    final low = DeviceProfile.tier == DeviceTier.low;
+    IconCache.maxBytes = (low ? 4 : 8) * 1024 * 1024;
+    AppScanner.maxIconBytes = (low ? 2 : 4) * 1024 * 1024;
+    PaintingBinding.instance.imageCache.maximumSizeBytes = (low ? 32 : 100) << 20;
+    IconCache.trimTo(IconCache.maxBytes);
+    AppScanner.trimIcons(AppScanner.maxIconBytes);
+  }
+
+  /// Trims every pool to its floor.
+  static void trimToFloor() {
+    trims++;
+    final before = totalBytes;
+    for (final pool in _pools) {
+      pool.trimTo?.call(pool.floor);
+    }
+    debugPrint('Memory trimmed: ${before >> 10} KB -> ${totalBytes >> 10} KB');
+  }
+
+  static int get totalBytes => _pools.fold(0, (sum, pool) => sum + pool.bytes());
+
+  /// Current bytes, budget and floor per pool.
+  static Map<String, dynamic> usage() => {
+        'totalBytes': totalBytes,
+        'trims': trims,
+        for (final pool in _pools) pool.name: pool.toJson(),
+      };
+
+  // Lowering and restoring the limit makes the cache evict down to [bytes];
+  // images still on screen are kept alive by their widgets.
+  static void _trimImageCache(int bytes) {
+    final cache = PaintingBinding.instance.imageCache;
+    if (cache.currentSizeBytes <= bytes) return;
+    final limit = cache.maximumSizeBytes;
+    cache.maximumSizeBytes = bytes;
+    cache.maximumSizeBytes = limit;
+  }
+}
+
+class _MemoryObserver with WidgetsBindingObserver {
+  @override
+  void didHaveMemoryPressure() => MemoryGovernor.trimToFloor();
+
+  @override
+  void didChangeAppLifecycleState(AppLifecycleState state) {
+    if (state == AppLifecycleState.paused) MemoryGovernor.trimToFloor();
+  }
+}
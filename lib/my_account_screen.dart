@@ -1,12 +1,11 @@
 import 'package:flutter/material.dart';
-import 'package:http/http.dart' as http;
 import 'dart:convert';
+import 'api_client.dart';
 import 'EditAccountScreen.dart';
 import 'login_screen.dart';
+import 'profile_repository.dart';
 import 'signup_screen.dart';
 
-const String baseUrl = 'https://my-backend-production-d82c.up.railway.app';
-
 class MyAccountScreen extends StatefulWidget {
   const MyAccountScreen({super.key});
 
@@ -23,37 +22,57 @@ class _MyAccountScreenState extends State<MyAccountScreen> {
   @override
   void initState() {
     super.initState();
+    ProfileRepository.profile.addListener(_onProfileChanged);
+    ProfileRepository.syncError.addListener(_onSyncError);
     fetchUserInfo();
   }
 
+  @override
+  void dispose() {
+    ProfileRepository.profile.removeListener(_onProfileChanged);
+    ProfileRepository.syncError.removeListener(_onSyncError);
+    super.dispose();
+  }
+
+  // Edits are saved locally first; a rejection by the server arrives later,
+  // usually after Edit Account has closed, so it is announced here.
+  void _onSyncError() {
+    final error = ProfileRepository.syncError.value;
+    if (error == null || !mounted) return;
+    ScaffoldMessenger.of(context).showSnackBar(
+      SnackBar(
+        content: Text('Your changes were not saved: $error'),
+        backgroundColor: Colors.red,
+      ),
+    );
+  }
+
+  void _onProfileChanged() {
+    final profile = ProfileRepository.profile.value;
+    if (profile == null || !mounted) return;
+    setState(() {
+      name = profile.fullName.isEmpty ? 'N/A' : profile.fullName;
+      email = profile.email.isEmpty ? 'N/A' : profile.email;
+      isLoading = false;
+    });
+  }
+
+  // Opens on the cached profile; only a first visit waits for the server.
   Future<void> fetchUserInfo() async {
-    setState(() => isLoading = true);
     final userId = UserSession.userId;
     if (userId == null) return;
 
-    try {
-      final url = Uri.parse('$baseUrl/users/$userId');
-      final response = await http.get(
-        url,
-        headers: {'Content-Type': 'application/json'},
-      );
+    final cached = await ProfileRepository.open(userId);
+    if (cached != null) {
+      _onProfileChanged();
+      return;
+    }
 
-      if (response.statusCode == 200) {
-        final userData = jsonDecode(response.body);
-        setState(() {
-          name = userData['fullName'] ?? 'N/A';
-          email = userData['email'] ?? 'N/A';
-          isLoading = false;
-        });
-      } else {
-        ScaffoldMessenger.of(context).showSnackBar(
-          SnackBar(content: Text('Failed to load user: ${response.statusCode}')),
-        );
-        setState(() => isLoading = false);
-      }
-    } catch (e) {
+    await ProfileRepository.refresh(userId);
+    if (!mounted) return;
+    if (ProfileRepository.profile.value == null) {
       ScaffoldMessenger.of(context).showSnackBar(
-        SnackBar(content: Text('Error: ${e.toString()}')),
+        const SnackBar(content: Text('Failed to load user')),
       );
       setState(() => isLoading = false);
     }
@@ -91,11 +110,7 @@ class _MyAccountScreenState extends State<MyAccountScreen> {
     if (userId == null) return;
 
     try {
-      final url = Uri.parse('$baseUrl/users/$userId');
-      final response = await http.delete(
-        url,
-        headers: {'Content-Type': 'application/json'},
-      );
+      final response = await ApiClient.instance.delete('/users/$userId');
 
       // Check if response is successful (200-299)
       if (response.statusCode >= 200 && response.statusCode < 300) {
@@ -225,6 +240,7 @@ class _MyAccountScreenState extends State<MyAccountScreen> {
                 _InfoRow(label: "Email Address", value: email),
                 const Divider(color: Colors.white24, indent: 20, endIndent: 20),
                 _InfoRow(label: "Password", value: "********"),
+                const _SyncStatus(),
                 const Spacer(),
                 Padding(
                   padding: const EdgeInsets.symmetric(horizontal: 20, vertical: 10),
@@ -257,16 +273,14 @@ class _MyAccountScreenState extends State<MyAccountScreen> {
                       elevation: 5,
                       shadowColor: Colors.purple.withOpacity(0.5),
                     ),
-                    onPressed: () async {
-                      final result = await Navigator.push(
+                    // Edits land in ProfileRepository, which updates this screen.
+                    onPressed: () {
+                      Navigator.push(
                         context,
                         MaterialPageRoute(
                           builder: (context) => const EditAccountScreen(),
                         ),
                       );
-                      if (result != null && result['updated'] == true) {
-                        await fetchUserInfo();
-                      }
                     },
                     child: const Text("Edit Account"),
                   ),
@@ -281,6 +295,46 @@ class _MyAccountScreenState extends State<MyAccountScreen> {
   }
 }
 
+/// Shows edits still waiting for the server, or why the server refused them.
+class _SyncStatus extends StatelessWidget {
+  const _SyncStatus();
+
+  @override
+  Widget build(BuildContext context) {
+    return ValueListenableBuilder<String?>(
+      valueListenable: ProfileRepository.syncError,
+      builder: (context, error, _) => ValueListenableBuilder<bool>(
+        valueListenable: ProfileRepository.hasPendingEdits,
+        builder: (context, pending, _) {
+          if (error == null && !pending) return const SizedBox.shrink();
+          return Padding(
+            padding: const EdgeInsets.symmetric(horizontal: 20, vertical: 8),
+            child: Row(
+              children: [
+                Icon(
+                  error != null ? Icons.error_outline : Icons.cloud_upload_outlined,
+                  color: error != null ? Colors.red : Colors.white70,
+                  size: 16,
+                ),
+                const SizedBox(width: 8),
+                Expanded(
+                  child: Text(
+                    error != null ? 'Changes not saved: $error' : 'Syncing your changes…',
+                    style: TextStyle(
+                      color: error != null ? Colors.red : Colors.white70,
+                      fontSize: 13,
+                    ),
+                  ),
+                ),
+              ],
+            ),
+          );
+        },
+      ),
+    );
+  }
+}
+
 class _InfoRow extends StatelessWidget {
   final String label;
   final String value;
@@ -0,0 +1,294 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:io';
+import 'package:flutter/foundation.dart';
+import 'package:path_provider/path_provider.dart';
+
+class AppNotification {
+  final String id;
+  final String text;
+  final DateTime createdAt;
+  final bool read;
+
+  const AppNotification({
+    required this.id,
+    required this.text,
+    required this.createdAt,
+    this.read = false,
+  });
+
+  AppNotification copyWith({bool? read}) =>
+      AppNotification(id: id, text: text, createdAt: createdAt, read: read ?? this.read);
+
+  factory AppNotification.fromJson(Map<String, dynamic> json) => AppNotification(
+        id: json['id'],
+        text: json['text'] ?? '',
+        createdAt: DateTime.fromMicrosecondsSinceEpoch(json['at']),
+        read: json['read'] ?? false,
+      );
+
+  Map<String, dynamic> toJson() => {
+        'id': id,
+        'text': text,
+        'at': createdAt.microsecondsSinceEpoch,
+        if (read) 'read': true,
+      };
+
+  /// Newest first; ties broken by id so the order is total.
+  static int compare(AppNotification a, AppNotification b) {
+    final byTime = b.createdAt.compareTo(a.createdAt);
+    return byTime != 0 ? byTime : b.id.compareTo(a.id);
+  }
+}
+
+/// One page of the feed and the cursor of the page after it, if any.
+class NotificationPage {
+  final List<AppNotification> items;
+  final String? next;
+
+  const NotificationPage(this.items, this.next);
+}
+
+/// What changed in the feed; [index] is the position in the full feed.
+class NotificationChange {
+  final String id;
+  final bool inserted;
+  final int index;
+
+  const NotificationChange.inserted(this.id, this.index) : inserted = true;
+  const NotificationChange.removed(this.id, this.index) : inserted = false;
+}
+
+/// Local notification feed.
+///
+/// Everything is kept in `<app support>/notifications.log`, one JSON record
+/// per line: `add`, `read` and `remove`. Changes only ever append a line, and
+/// the log is rewritten compactly on load once most of it is superseded.
+/// Each notification has its own [item] notifier, so marking one read
+/// rebuilds one row. [changes] reports inserts and removals so lists can
+/// splice them in. [unreadCount] is kept up to date on every change and
+/// never needs to scan the feed.
+class NotificationStore {
+  static const int pageSize = 20;
+
+  static final ValueNotifier<int> unreadCount = ValueNotifier(0);
+
+  static final List<AppNotification> _feed = [];
+  static final Map<String, ValueNotifier<AppNotification>> _items = {};
+  static final StreamController<NotificationChange> _changes =
+      StreamController.broadcast();
+
+  static Future<void>? _loading;
+  static File? _file;
+  static final List<String> _unwritten = [];
+  static Future<void> _writing = Future.value();
+  static bool _writeScheduled = false;
+
+  static Stream<NotificationChange> get changes => _changes.stream;
+
+  static Future<void> load() => _loading ??= _load();
+
+  static ValueListenable<AppNotification>? item(String id) => _items[id];
+
+  /// Up to [limit] notifications older than [cursor], newest first.
+  static Future<NotificationPage> page({String? cursor, int limit = pageSize}) async {
+    await load();
+    var start = 0;
+    if (cursor != null) {
+      final split = cursor.indexOf(':');
+      final after = AppNotification(
+        id: cursor.substring(split + 1),
+        text: '',
+        createdAt: DateTime.fromMicrosecondsSinceEpoch(int.parse(cursor.substring(0, split))),
+      );
+      start = _lowerBound(after);
+      if (start < _feed.length && _feed[start].id == after.id) start++;
+    }
+    final end = (start + limit).clamp(0, _feed.length);
+    final items = _feed.sublist(start, end);
+    final next = end < _feed.length && items.isNotEmpty
+        ? '${items.last.createdAt.microsecondsSinceEpoch}:${items.last.id}'
+        : null;
+    return NotificationPage(items, next);
+  }
+
+  /// Adds [notification] to the feed; an existing id is left untouched.
+  static Future<void> add(AppNotification notification) async {
+    await load();
+    if (!_insert(notification)) return;
+    _append({'op': 'add', ...notification.toJson()});
+  }
+
+  static Future<void> markRead(String id) async {
+    await load();
+    if (!_setRead(id)) return;
+    _append({'op': 'read', 'id': id});
+  }
+
+  static Future<void> markAllRead() async {
+    await load();
+    final unread = [for (final n in _feed) if (!n.read) n.id];
+    for (final id in unread) {
+      _setRead(id);
+      _append({'op': 'read', 'id': id});
+    }
+  }
+
+  static Future<void> remove(String id) async {
+    await load();
+    if (!_remove(id)) return;
+    _append({'op': 'remove', 'id': id});
+  }
+
+  static bool _insert(AppNotification notification) {
+    if (_items.containsKey(notification.id)) return false;
+    final index = _lowerBound(notification);
+    _feed.insert(index, notification);
+    _items[notification.id] = ValueNotifier(notification);
+    if (!notification.read) unreadCount.value++;
+    _changes.add(NotificationChange.inserted(notification.id, index));
+    return true;
+  }
+
+  static bool _setRead(String id) {
+    final notifier = _items[id];
+    if (notifier == null || notifier.value.read) return false;
+    final updated = notifier.value.copyWith(read: true);
+    _feed[_lowerBound(updated)] = updated;
+    notifier.value = updated;
+    unreadCount.value--;
+    return true;
+  }
+
+  static bool _remove(String id) {
+    final notifier = _items.remove(id);
+    if (notifier == null) return false;
+    final index = _lowerBound(notifier.value);
+    _feed.removeAt(index);
+    if (!notifier.value.read) unreadCount.value--;
+    _changes.add(NotificationChange.removed(id, index));
+    return true;
+  }
+
+  // First position whose notification does not sort before [n].
+  static int _lowerBound(AppNotification n) {
+    var low = 0, high = _feed.length;
+    while (low < high) {
+      final mid = (low + high) >> 1;
+      if (AppNotification.compare(_feed[mid], n) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  // Lines added in the same event-loop turn go out in one write.
+  static void _append(Map<String, dynamic> record) {
+    _unwritten.add(jsonEncode(record));
+    if (_writeScheduled) return;
+    _writeScheduled = true;
+    scheduleMicrotask(() {
+      _writeScheduled = false;
+      final lines = List.of(_unwritten);
+      _unwritten.clear();
+      _writing = _writing.then((_) async {
+        final file = await _target();
+        await file.writeAsString('${lines.join('\n')}\n', mode: FileMode.append, flush: true);
+      }).catchError((e) {
+        debugPrint('Error saving notifications: $e');
+      });
+    });
+  }
+
+  /// Completes once every change so far is on disk.
+  static Future<void> flush() async {
+    await Future<void>.delayed(Duration.zero);
+    await _writing;
+  }
+
+  static Future<File> _target() async {
+    if (_file != null) return _file!;
+    final support = await getApplicationSupportDirectory();
+    return _file = File('${support.path}/notifications.log');
+  }
+
+  static Future<void> _load() async {
+    var records = 0;
+    try {
+      final file = await _target();
+      if (!await file.exists()) {
+        _seed();
+        return;
+      }
+      for (final line in await file.readAsLines()) {
+        if (line.isEmpty) continue;
+        records++;
+        try {
+          final record = jsonDecode(line) as Map<String, dynamic>;
+          switch (record['op']) {
+            case 'add':
+              _insert(AppNotification.fromJson(record));
+              break;
+            case 'read':
+              _setRead(record['id']);
+              break;
+            case 'remove':
+              _remove(record['id']);
+              break;
+          }
+        } catch (_) {
+          // A line cut short by a crash mid-write; the rest is intact.
+        }
+      }
+      if (records > 2 * _feed.length + 50) await _compact();
+    } catch (e) {
+      debugPrint('Error loading notifications: $e');
+    }
+  }
+
+  // Rewrites the log as one `add` line per live notification.
+  static Future<void> _compact() async {
+    try {
+      final file = await _target();
+      final tmp = File('${file.path}.tmp');
+      final lines = _feed.map((n) => jsonEncode({'op': 'add', ...n.toJson()}));
+      await tmp.writeAsString('${lines.join('\n')}\n', flush: true);
+      await tmp.rename(file.path);
+    } catch (e) {
+      debugPrint('Error compacting notifications: $e');
+    }
+  }
+
+  // First run: the tips the page used to show.
+  static void _seed() {
+    const tips = [
+      'Welcome to Spiderw App! Get started by connecting your favorite apps.',
+      'Long-press an app icon to edit or remove it from your web.',
+      'Looks Empty? Tap “Manage Apps” to start building your web.',
+    ];
+    final now = DateTime.now();
+    for (var i = 0; i < tips.length; i++) {
+      final notification = AppNotification(
+        id: 'tip-$i',
+        text: tips[i],
+        createdAt: now.subtract(Duration(minutes: i)),
+        read: i > 0,
+      );
+      _insert(notification);
+      _append({'op': 'add', ...notification.toJson()});
+    }
+  }
+
+  @visibleForTesting
+  static void debugReset({Directory? root}) {
+    _feed.clear();
+    _items.clear();
+    _unwritten.clear();
+    unreadCount.value = 0;
+    _loading = null;
+    _writing = Future.value();
+    _file = root == null ? null : File('${root.path}/notifications.log');
+  }
+}
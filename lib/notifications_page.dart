@@ -1,4 +1,6 @@
+import 'dart:async';
 import 'package:flutter/material.dart';
+import 'notification_store.dart';
 
 class NotificationsPage extends StatefulWidget {
   const NotificationsPage({super.key});
@@ -8,56 +10,68 @@ class NotificationsPage extends StatefulWidget {
 }
 
 class _NotificationsPageState extends State<NotificationsPage> {
-  List<Map<String, dynamic>> notifications = [
-    {
-      'id': '1',
-      'text': 'Welcome to Spiderw App! Get started by connecting your favorite apps.',
-      'time': '9:35 AM',
-      'unread': true,
-    },
-    {
-      'id': '2',
-      'text': 'You’re all set! Your fingerprint has been successfully added for secure logins.',
-      'time': '9:35 AM',
-      'unread': true,
-    },
-    {
-      'id': '3',
-      'text': 'Update your password every 90 days to keep your account secure.',
-      'time': '9:35 AM',
-      'unread': false,
-    },
-    {
-      'id': '4',
-      'text': 'If this wasn’t you, change your password immediately.',
-      'time': '9:35 AM',
-      'unread': false,
-    },
-    {
-      'id': '5',
-      'text': 'You’ve reached the 8-app limit. Remove one to add a new app.',
-      'time': '9:35 AM',
-      'unread': false,
-    },
-    {
-      'id': '6',
-      'text': 'New Level Unlocked! ‘Mystic Mountains’ is now available',
-      'time': '9:35 AM',
-      'unread': false,
-    },
-    {
-      'id': '7',
-      'text': 'Long-press an app icon to edit or remove it from your web.',
-      'time': '9:35 AM',
-      'unread': false,
-    },
-    {
-      'id': '8',
-      'text': 'Looks Empty? Tap “Manage Apps” to start building your web.',
-      'time': '9:35 AM',
-      'unread': false,
-    },
-  ];
+  final GlobalKey<AnimatedListState> _listKey = GlobalKey();
+  final ScrollController _scroll = ScrollController();
+  StreamSubscription<NotificationChange>? _changes;
+
+  // Ids of the loaded rows; always the newest part of the feed.
+  final List<String> _ids = [];
+  String? _next;
+  bool _loadingMore = false;
+  bool _reachedEnd = false;
+
+  @override
+  void initState() {
+    super.initState();
+    _changes = NotificationStore.changes.listen(_onChange);
+    _scroll.addListener(_onScroll);
+    _loadMore();
+  }
+
+  @override
+  void dispose() {
+    _changes?.cancel();
+    _scroll.dispose();
+    super.dispose();
+  }
+
+  Future<void> _loadMore() async {
+    if (_loadingMore || _reachedEnd) return;
+    _loadingMore = true;
+    final page = await NotificationStore.page(cursor: _next);
+    _loadingMore = false;
+    if (!mounted) return;
+
+    final start = _ids.length;
+    _ids.addAll(page.items.map((n) => n.id));
+    _next = page.next;
+    _reachedEnd = page.next == null;
+    for (var i = start; i < _ids.length; i++) {
+      _listKey.currentState?.insertItem(i, duration: Duration.zero);
+    }
+  }
+
+  void _onScroll() {
+    if (_scroll.position.extentAfter < 400) _loadMore();
+  }
+
+  // Splices feed changes into the loaded rows without touching the others.
+  void _onChange(NotificationChange change) {
+    final list = _listKey.currentState;
+    if (list == null) return;
+    if (change.inserted) {
+      if (change.index > _ids.length || (change.index == _ids.length && !_reachedEnd)) {
+        return; // Beyond the loaded rows; it arrives with its page.
+      }
+      _ids.insert(change.index, change.id);
+      list.insertItem(change.index);
+    } else {
+      final index = _ids.indexOf(change.id);
+      if (index == -1) return;
+      _ids.removeAt(index);
+      list.removeItem(index, (_, __) => const SizedBox.shrink(), duration: Duration.zero);
+    }
+  }
 
   @override
   Widget build(BuildContext context) {
@@ -129,74 +143,17 @@ class _NotificationsPageState extends State<NotificationsPage> {
 
                   // Notification List
                   Expanded(
-                    child: ListView.separated(
-                      itemCount: notifications.length,
-                      separatorBuilder: (context, index) =>
-                      const Divider(color: Colors.white24, height: 1),
-                      itemBuilder: (context, index) {
-                        final item = notifications[index];
-
-                        return Dismissible(
-                          key: Key(item['id']),
-                          direction: DismissDirection.endToStart,
-                          background: Container(
-                            alignment: Alignment.centerRight,
-                            padding: const EdgeInsets.symmetric(horizontal: 20),
-                            color: Colors.red,
-                            child: const Icon(Icons.delete, color: Colors.white),
-                          ),
-                          onDismissed: (direction) {
-                            setState(() {
-                              notifications.removeAt(index);
-                            });
-
-                            ScaffoldMessenger.of(context).showSnackBar(
-                              const SnackBar(
-                                content: Text("Notification dismissed"),
-                                duration: Duration(milliseconds: 800),
-                              ),
-                            );
-                          },
-                          child: Padding(
-                            padding: const EdgeInsets.symmetric(vertical: 12.0),
-                            child: Row(
-                              crossAxisAlignment: CrossAxisAlignment.start,
-                              children: [
-                                Expanded(
-                                  child: Text(
-                                    item['text'],
-                                    style: const TextStyle(
-                                      color: Colors.white,
-                                      fontSize: 14,
-                                    ),
-                                  ),
-                                ),
-                                Column(
-                                  crossAxisAlignment: CrossAxisAlignment.end,
-                                  children: [
-                                    Text(
-                                      item['time'],
-                                      style: const TextStyle(
-                                        color: Colors.white54,
-                                        fontSize: 12,
-                                      ),
-                                    ),
-                                    if (item['unread'])
-                                      const Padding(
-                                        padding: EdgeInsets.only(top: 4.0),
-                                        child: Icon(
-                                          Icons.brightness_1,
-                                          color: Colors.red,
-                                          size: 8,
-                                        ),
-                                      ),
-                                  ],
-                                ),
-                              ],
-                            ),
-                          ),
-                        );
-                      },
+                    child: AnimatedList(
+                      key: _listKey,
+                      controller: _scroll,
+                      initialItemCount: _ids.length,
+                      itemBuilder: (context, index, animation) => SizeTransition(
+                        sizeFactor: animation,
+                        child: _NotificationRow(
+                          key: ValueKey(_ids[index]),
+                          id: _ids[index],
+                        ),
+                      ),
                     ),
                   ),
                 ],
@@ -208,3 +165,86 @@ class _NotificationsPageState extends State<NotificationsPage> {
     );
   }
 }
+
+class _NotificationRow extends StatelessWidget {
+  final String id;
+
+  const _NotificationRow({super.key, required this.id});
+
+  @override
+  Widget build(BuildContext context) {
+    final listenable = NotificationStore.item(id);
+    if (listenable == null) return const SizedBox.shrink();
+
+    return Dismissible(
+      key: Key(id),
+      direction: DismissDirection.endToStart,
+      background: Container(
+        alignment: Alignment.centerRight,
+        padding: const EdgeInsets.symmetric(horizontal: 20),
+        color: Colors.red,
+        child: const Icon(Icons.delete, color: Colors.white),
+      ),
+      onDismissed: (direction) {
+        NotificationStore.remove(id);
+
+        ScaffoldMessenger.of(context).showSnackBar(
+          const SnackBar(
+            content: Text("Notification dismissed"),
+            duration: Duration(milliseconds: 800),
+          ),
+        );
+      },
+      child: ValueListenableBuilder<AppNotification>(
+        valueListenable: listenable,
+        builder: (context, item, _) => GestureDetector(
+          behavior: HitTestBehavior.opaque,
+          onTap: () => NotificationStore.markRead(id),
+          child: Column(
+            children: [
+              Padding(
+                padding: const EdgeInsets.symmetric(vertical: 12.0),
+                child: Row(
+                  crossAxisAlignment: CrossAxisAlignment.start,
+                  children: [
+                    Expanded(
+                      child: Text(
+                        item.text,
+                        style: const TextStyle(
+                          color: Colors.white,
+                          fontSize: 14,
+                        ),
+                      ),
+                    ),
+                    Column(
+                      crossAxisAlignment: CrossAxisAlignment.end,
+                      children: [
+                        Text(
+                          TimeOfDay.fromDateTime(item.createdAt).format(context),
+                          style: const TextStyle(
+                            color: Colors.white54,
+                            fontSize: 12,
+                          ),
+                        ),
+                        if (!item.read)
+                          const Padding(
+                            padding: EdgeInsets.only(top: 4.0),
+                            child: Icon(
+                              Icons.brightness_1,
+                              color: Colors.red,
+                              size: 8,
+                            ),
+                          ),
+                      ],
+                    ),
+                  ],
+                ),
+              ),
+              const Divider(color: Colors.white24, height: 1),
+            ],
+          ),
+        ),
+      ),
+    );
+  }
+}
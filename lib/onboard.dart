@@ -1,5 +1,7 @@
 import 'package:flutter/material.dart';
 
+import 'app_asset.dart';
+import 'assets.dart';
 import 'login_screen.dart';
 
 void main() {
@@ -30,7 +32,7 @@ class _OnboardingPagerState extends State<OnboardingPager> {
   void initState() {
     onboardingScreens.addAll([
       OnboardingData(
-        image: 'assets/images/native-mobile-app-security.png',
+        image: Assets.imagesNativeMobileAppSecurity,
         title: RichText(
           text: TextSpan(
             children: [
@@ -56,7 +58,7 @@ class _OnboardingPagerState extends State<OnboardingPager> {
         "Easily access your favorite apps and websites all from one secure, spiderweb-style dashboard",
       ),
       OnboardingData(
-        image: 'assets/images/abstract-cybersecurity-concept-design.png',
+        image: Assets.imagesAbstractCybersecurityConceptDesign,
         title: RichText(
           text: TextSpan(
             children: [
@@ -82,7 +84,7 @@ class _OnboardingPagerState extends State<OnboardingPager> {
         "Use your fingerprint or password to log in once and unlock multiple accounts instantly—safe, fast, and hassle-free.",
       ),
       OnboardingData(
-        image: 'assets/images/young-girl-using-digital-tablet-night-beauty-light-bokeh-city.png',
+        image: Assets.imagesYoungGirlUsingDigitalTabletNightBeautyLightBokehCity,
         title: RichText(
           text: TextSpan(
             children: [
@@ -131,7 +133,7 @@ class _OnboardingPagerState extends State<OnboardingPager> {
 }
 
 class OnboardingData {
-  final String image;
+  final AppAsset image;
   final RichText title;
   final String description;
 
@@ -165,7 +167,7 @@ class OnboardingScreen extends StatelessWidget {
     return Stack(
       children: [
         Positioned.fill(
-          child: Image.asset(
+          child: AssetImageView(
             data.image,
             fit: BoxFit.cover,
           ),
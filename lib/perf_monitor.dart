@@ -0,0 +1,217 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:io';
+import 'dart:ui' show FontFeature, FrameTiming;
+import 'package:flutter/material.dart';
+import 'package:flutter/scheduler.dart';
+import 'package:path_provider/path_provider.dart';
+import 'app_launcher.dart';
+import 'icon_cache.dart';
+import 'memory_governor.dart';
+import 'usage_stats.dart';
+
+/// In-app performance counters for the home screen.
+///
+/// Once [start]ed, the build and raster times of the last [window] frames are
+/// kept so percentiles can be read at any time. Screens call [countBuild]
+/// from the subtrees they want rebuild counts for. [report] puts those
+/// together with the image cache numbers and launch latencies. [PerfOverlay]
+/// shows the report and [exportReport] saves it as JSON.
+class PerfMonitor {
+  static const int window = 600;
+  static const Duration frameBudget = Duration(microseconds: 16667);
+
+  static final List<int> _buildMicros = [];
+  static final List<int> _rasterMicros = [];
+  static final Map<String, int> _builds = {};
+  static int _frames = 0;
+  static int _jankyFrames = 0;
+  static bool _running = false;
+  static final Stopwatch _uptime = Stopwatch();
+
+  static bool get isRunning => _running;
+
+  static void start() {
+    if (_running) return;
+    _running = true;
+    _uptime.start();
+    SchedulerBinding.instance.addTimingsCallback(_onTimings);
+  }
+
+  static void stop() {
+    if (!_running) return;
+    _running = false;
+    _uptime.stop();
+    SchedulerBinding.instance.removeTimingsCallback(_onTimings);
+  }
+
+  static void reset() {
+    _buildMicros.clear();
+    _rasterMicros.clear();
+    _builds.clear();
+    _frames = 0;
+    _jankyFrames = 0;
+    _uptime.reset();
+    if (_running) _uptime.start();
+  }
+
+  /// Counts one build of the subtree called [name].
+  static void countBuild(String name) {
+    if (!_running) return;
+    _builds[name] = (_builds[name] ?? 0) + 1;
+  }
+
+  static void _onTimings(List<FrameTiming> timings) {
+    for (final timing in timings) {
+      _push(_buildMicros, timing.buildDuration.inMicroseconds);
+      _push(_rasterMicros, timing.rasterDuration.inMicroseconds);
+      _frames++;
+      if (timing.buildDuration > frameBudget || timing.rasterDuration > frameBudget) {
+        _jankyFrames++;
+      }
+    }
+  }
+
+  static void _push(List<int> samples, int value) {
+    if (samples.length == window) samples.removeAt(0);
+    samples.add(value);
+  }
+
+  static Map<String, double> _percentiles(List<int> samples) {
+    if (samples.isEmpty) return const {'p50': 0, 'p90': 0, 'p99': 0, 'max': 0};
+    final sorted = List.of(samples)..sort();
+    double at(double p) => sorted[((sorted.length - 1) * p).round()] / 1000;
+    return {'p50': at(0.5), 'p90': at(0.9), 'p99': at(0.99), 'max': sorted.last / 1000};
+  }
+
+  /// Snapshot of all counters; frame times are in milliseconds.
+  static Map<String, dynamic> report() {
+    final lookups = IconCache.hits + IconCache.misses;
+    final images = PaintingBinding.instance.imageCache;
+    return {
+      'uptimeMs': _uptime.elapsedMilliseconds,
+      'frames': {
+        'total': _frames,
+        'janky': _jankyFrames,
+        'sampled': _buildMicros.length,
+        'buildMs': _percentiles(_buildMicros),
+        'rasterMs': _percentiles(_rasterMicros),
+      },
+      'rebuilds': Map.of(_builds),
+      'iconCache': {
+        'hits': IconCache.hits,
+        'misses': IconCache.misses,
+        'hitRate': lookups == 0 ? 0 : IconCache.hits / lookups,
+        'decodes': IconCache.decodes,
+        'entries': IconCache.length,
+        'bytes': IconCache.currentBytes,
+      },
+      'imageCache': {
+        'entries': images.currentSize,
+        'live': images.liveImageCount,
+        'bytes': images.currentSizeBytes,
+      },
+      'launches': {
+        for (final entry in AppLauncher.stats.entries) entry.key: entry.value.toJson(),
+      },
+      'memory': MemoryGovernor.usage(),
+      'usage': {
+        'records': UsageStats.length,
+        'scores': UsageStats.scores(),
+      },
+    };
+  }
+
+  /// Writes [report] to `<documents>/perf/` and returns the file path.
+  static Future<String?> exportReport() async {
+    try {
+      final dir = Directory('${(await getApplicationDocumentsDirectory()).path}/perf');
+      await dir.create(recursive: true);
+      final file = File('${dir.path}/report-${DateTime.now().millisecondsSinceEpoch}.json');
+      await file.writeAsString(const JsonEncoder.withIndent('  ').convert(report()));
+      return file.path;
+    } catch (e) {
+      debugPrint('Error exporting perf report: $e');
+      return null;
+    }
+  }
+}
+
+/// Small translucent panel with the live [PerfMonitor] numbers.
+///
+/// Long-press it to export the JSON report and the raw usage records.
+class PerfOverlay extends StatefulWidget {
+  const PerfOverlay({super.key});
+
+  @override
+  State<PerfOverlay> createState() => _PerfOverlayState();
+}
+
+class _PerfOverlayState extends State<PerfOverlay> {
+  Timer? _timer;
+
+  @override
+  void initState() {
+    super.initState();
+    PerfMonitor.start();
+    _timer = Timer.periodic(const Duration(milliseconds: 500), (_) {
+      if (mounted) setState(() {});
+    });
+  }
+
+  @override
+  void dispose() {
+    _timer?.cancel();
+    super.dispose();
+  }
+
+  Future<void> _export() async {
+    final path = await PerfMonitor.exportReport();
+    await UsageStats.export();
+    if (!mounted) return;
+    ScaffoldMessenger.of(context).showSnackBar(
+      SnackBar(content: Text(path == null ? 'Export failed' : 'Saved $path')),
+    );
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    final report = PerfMonitor.report();
+    final frames = report['frames'] as Map<String, dynamic>;
+    final build = frames['buildMs'] as Map<String, double>;
+    final raster = frames['rasterMs'] as Map<String, double>;
+    final icons = report['iconCache'] as Map<String, dynamic>;
+    final rebuilds = report['rebuilds'] as Map<String, int>;
+
+    String ms(Map<String, double> p) =>
+        '${p['p50']!.toStringAsFixed(1)}/${p['p90']!.toStringAsFixed(1)}/${p['p99']!.toStringAsFixed(1)}';
+
+    final lines = [
+      'frames ${frames['total']}  jank ${frames['janky']}',
+      'build  p50/90/99 ${ms(build)} ms',
+      'raster p50/90/99 ${ms(raster)} ms',
+      'icons  ${((icons['hitRate'] as num) * 100).toStringAsFixed(0)}% hit  ${icons['decodes']} dec',
+      for (final entry in rebuilds.entries) '${entry.key} ×${entry.value}',
+    ];
+
+    return GestureDetector(
+      onLongPress: _export,
+      child: Container(
+        padding: const EdgeInsets.all(6),
+        decoration: BoxDecoration(
+          color: Colors.black.withOpacity(0.6),
+          borderRadius: BorderRadius.circular(6),
+        ),
+        child: Text(
+          lines.join('\n'),
+          style: const TextStyle(
+            color: Colors.greenAccent,
+            fontSize: 10,
+            fontFamily: 'monospace',
+            fontFeatures: [FontFeature.tabularFigures()],
+          ),
+        ),
+      ),
+    );
+  }
+}
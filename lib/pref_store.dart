@@ -0,0 +1,166 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:io';
+import 'dart:math';
+import 'package:flutter/material.dart';
+import 'package:path_provider/path_provider.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+/// Small key/value store for session and settings state.
+///
+/// The in-memory map is authoritative: reads never touch the disk and writes
+/// return as soon as memory is updated. Changes are flushed together after
+/// [flushDelay], as soon as the app is paused, or when [flush] is awaited.
+/// Each flush writes the whole map to `prefs.json.tmp` and renames it over
+/// `prefs.json`, so a crash leaves either the old or the new state on disk.
+class PrefStore {
+  static const Duration flushDelay = Duration(milliseconds: 250);
+
+  /// Longest wait between retries of a failed write.
+  static const Duration maxRetryDelay = Duration(seconds: 30);
+  static const String _fileName = 'prefs.json';
+
+  // Keys SelectedAppsStore still migrates from SharedPreferences itself.
+  static const List<String> _foreignKeys = ['selected_apps_data', 'selected_apps'];
+
+  static Map<String, Object>? _values;
+  static Future<void>? _loading;
+  static File? _file;
+  static Timer? _flushTimer;
+  static bool _dirty = false;
+  static int _failures = 0;
+  static Future<void> _writing = Future.value();
+  static _PauseFlusher? _pauseFlusher;
+
+  /// Reads the store from disk once; later calls return immediately.
+  static Future<void> load() => _loading ??= _load();
+
+  static Future<void> _load() async {
+    _pauseFlusher ??= _PauseFlusher()..attach();
+    try {
+      final file = await _target();
+      if (await file.exists()) {
+        final decoded = jsonDecode(await file.readAsString()) as Map<String, dynamic>;
+        // Edits made before the load finished win over what is on disk.
+        _values = {
+          for (final entry in decoded.entries)
+            if (entry.value != null) entry.key: _fromJson(entry.value),
+          ...?_values,
+        };
+      } else {
+        final migrated = await _readSharedPreferences();
+        _values = {...migrated, ...?_values};
+        if (migrated.isNotEmpty) {
+          _dirty = true;
+          await flush();
+          // Only dropped once the new file holds them.
+          final prefs = await SharedPreferences.getInstance();
+          await Future.wait(migrated.keys.map(prefs.remove));
+        }
+      }
+    } catch (e) {
+      debugPrint('Error loading preferences: $e');
+      _values ??= {};
+    }
+  }
+
+  static Map<String, Object> get _map => _values ??= {};
+
+  static bool? getBool(String key) => _map[key] as bool?;
+  static String? getString(String key) => _map[key] as String?;
+  static int? getInt(String key) => _map[key] as int?;
+  static List<String>? getStringList(String key) => (_map[key] as List?)?.cast<String>();
+  static Iterable<String> get keys => _map.keys;
+
+  static void set(String key, Object? value) => setAll({key: value});
+
+  /// Applies several changes as one edit; a null value removes the key.
+  static void setAll(Map<String, Object?> changes) {
+    var changed = false;
+    changes.forEach((key, value) {
+      if (value == null) {
+        changed |= _map.remove(key) != null;
+      } else if (_map[key] != value) {
+        _map[key] = value;
+        changed = true;
+      }
+    });
+    if (changed) _scheduleFlush();
+  }
+
+  static void remove(String key) => setAll({key: null});
+
+  /// Removes every key matching [test] in a single edit.
+  static void removeWhere(bool Function(String key) test) {
+    final keys = _map.keys.where(test).toList();
+    if (keys.isEmpty) return;
+    setAll({for (final key in keys) key: null});
+  }
+
+  static void _scheduleFlush([Duration delay = flushDelay]) {
+    _dirty = true;
+    _flushTimer?.cancel();
+    _flushTimer = Timer(delay, flush);
+  }
+
+  /// Writes pending changes now; completes once they are on disk.
+  static Future<void> flush() {
+    _flushTimer?.cancel();
+    _flushTimer = null;
+    _writing = _writing.then((_) async {
+      if (!_dirty) return;
+      _dirty = false;
+      await _write(jsonEncode(_map));
+      _failures = 0;
+    }).catchError((e) {
+      debugPrint('Error writing preferences: $e');
+      // Retry on its own, backing off, so the change is not left in memory
+      // until some unrelated edit happens to flush it.
+      final delay = flushDelay * (1 << min(_failures++, 7));
+      _scheduleFlush(delay > maxRetryDelay ? maxRetryDelay : delay);
+    });
+    return _writing;
+  }
+
+  static Future<void> _write(String contents) async {
+    final file = await _target();
+    final tmp = File('${file.path}.tmp');
+    await tmp.writeAsString(contents, flush: true);
+    await tmp.rename(file.path);
+  }
+
+  static Future<File> _target() async {
+    if (_file != null) return _file!;
+    final support = await getApplicationSupportDirectory();
+    await support.create(recursive: true);
+    return _file = File('${support.path}/$_fileName');
+  }
+
+  static Object _fromJson(Object value) {
+    if (value is List) return value.cast<String>().toList();
+    return value;
+  }
+
+  /// Copies values written by earlier versions out of SharedPreferences.
+  static Future<Map<String, Object>> _readSharedPreferences() async {
+    final prefs = await SharedPreferences.getInstance();
+    final values = <String, Object>{};
+    for (final key in prefs.getKeys()) {
+      if (_foreignKeys.contains(key)) continue;
+      final value = prefs.get(key);
+      if (value != null) values[key] = value is List ? value.cast<String>().toList() : value;
+    }
+    return values;
+  }
+}
+
+class _PauseFlusher with WidgetsBindingObserver {
+  void attach() => WidgetsBinding.instance.addObserver(this);
+
+  @override
+  void didChangeAppLifecycleState(AppLifecycleState state) {
+    if (state == AppLifecycleState.paused || state == AppLifecycleState.detached) {
+      PrefStore.flush();
+    }
+  }
+}
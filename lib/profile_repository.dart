@@ -0,0 +1,273 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:io';
+import 'dart:math';
+import 'package:flutter/foundation.dart';
+import 'package:path_provider/path_provider.dart';
+import 'api_client.dart';
+
+class UserProfile {
+  final String id;
+  final String fullName;
+  final String email;
+
+  const UserProfile({required this.id, required this.fullName, required this.email});
+
+  factory UserProfile.fromJson(String id, Map<String, dynamic> json) => UserProfile(
+        id: id,
+        fullName: json['fullName'] ?? '',
+        email: json['email'] ?? '',
+      );
+
+  Map<String, String> toJson() => {'id': id, 'fullName': fullName, 'email': email};
+
+  UserProfile apply(Map<String, String> fields) => UserProfile(
+        id: id,
+        fullName: fields['fullName'] ?? fullName,
+        email: fields['email'] ?? email,
+      );
+}
+
+/// Offline-first copy of the signed-in user's profile.
+///
+/// [profile] is served from `<app support>/profile.json` right away and
+/// refreshed from `GET /users/{id}` in the background. [edit] applies
+/// changes locally first and queues them. The queue is sent as one
+/// `PUT /users/{id}` and retried with exponential backoff while the server is
+/// unreachable. Edits the server rejects are dropped, the profile is reloaded
+/// from the server and the reason is published in [syncError]. Fields still
+/// waiting in the queue always win over older server data.
+class ProfileRepository {
+  static const Duration maxBackoff = Duration(minutes: 5);
+
+  /// First retry delay; doubles per failed attempt up to [maxBackoff].
+  static Duration retryBase = const Duration(seconds: 2);
+
+  static final ValueNotifier<UserProfile?> profile = ValueNotifier(null);
+  static final ValueNotifier<bool> hasPendingEdits = ValueNotifier(false);
+  static final ValueNotifier<String?> syncError = ValueNotifier(null);
+
+  static ApiClient? _clientOverride;
+  static ApiClient get _client => _clientOverride ?? ApiClient.instance;
+  static Directory? _root;
+  static Future<void>? _loading;
+  static Map<String, String> _pending = {};
+  static Future<void>? _draining;
+  static Timer? _retryTimer;
+  static int _attempts = 0;
+
+  /// Returns the cached profile of [userId] at once and refreshes it in the
+  /// background. Null only when nothing was ever cached for this user.
+  static Future<UserProfile?> open(String userId) async {
+    await (_loading ??= _load());
+    if (profile.value?.id != userId) {
+      profile.value = null;
+      _setPending({});
+    }
+    unawaited(refresh(userId));
+    if (_pending.isNotEmpty) unawaited(_drain());
+    return profile.value;
+  }
+
+  /// Fetches the profile from the server and merges in pending edits.
+  static Future<void> refresh(String userId, {bool forceRefresh = false}) async {
+    try {
+      final response = await _client.get(
+        '/users/$userId',
+        forceRefresh: forceRefresh,
+        onRevalidated: (fresh) => _applyServer(userId, fresh.body),
+      );
+      if (response.statusCode == 200) {
+        _applyServer(userId, response.body);
+      } else {
+        debugPrint('Failed to load profile: ${response.statusCode}');
+      }
+    } catch (e) {
+      debugPrint('Profile refresh failed, keeping cached copy: $e');
+    }
+  }
+
+  /// Applies [fields] (`fullName`, `email`) at once and syncs them later.
+  static Future<void> edit(String userId, Map<String, String> fields) async {
+    await (_loading ??= _load());
+    final current = profile.value ?? UserProfile(id: userId, fullName: '', email: '');
+    syncError.value = null;
+    _retryTimer?.cancel();
+    _retryTimer = null;
+    profile.value = current.apply(fields);
+    _setPending({..._pending, ...fields});
+    await _persist();
+    _attempts = 0;
+    unawaited(_drain());
+  }
+
+  /// Sends a password change straight away; passwords are never queued or
+  /// written to disk. Returns the server response.
+  static Future<ApiResult> changePassword(String userId, Map<String, String> fields) async {
+    try {
+      final response = await _client.put('/users/$userId', fields);
+      if (response.statusCode == 200) {
+        final profileFields = Map.of(fields)..remove('password');
+        profile.value = (profile.value ?? UserProfile(id: userId, fullName: '', email: ''))
+            .apply(profileFields);
+        _setPending(Map.of(_pending)..removeWhere((k, v) => profileFields[k] == v));
+        await _persist();
+        return ApiResult.ok();
+      }
+      return ApiResult.rejected(_messageOf(response.body, 'Update failed'));
+    } catch (e) {
+      return ApiResult.offline();
+    }
+  }
+
+  /// Forgets the cached profile and any queued edits, e.g. on logout.
+  static Future<void> clear() async {
+    _retryTimer?.cancel();
+    _retryTimer = null;
+    profile.value = null;
+    syncError.value = null;
+    _setPending({});
+    _loading = Future.value();
+    try {
+      final file = await _file();
+      if (await file.exists()) await file.delete();
+    } catch (e) {
+      debugPrint('Error clearing profile cache: $e');
+    }
+  }
+
+  /// Completes when the queue is empty or waiting for a retry.
+  static Future<void> sync() => _drain();
+
+  static Future<void> _drain() {
+    return _draining ??= _send().whenComplete(() => _draining = null);
+  }
+
+  static Future<void> _send() async {
+    while (_pending.isNotEmpty) {
+      final userId = profile.value?.id;
+      if (userId == null) return;
+
+      final sending = Map.of(_pending);
+      try {
+        final response = await _client.put('/users/$userId', sending);
+        if (response.statusCode == 200) {
+          // Only drop what was sent; newer edits stay queued.
+          _setPending(Map.of(_pending)..removeWhere((k, v) => sending[k] == v));
+          _attempts = 0;
+          await _persist();
+          continue;
+        }
+        // 408 and 429 say "not now", not "no": they are retried like 5xx.
+        final status = response.statusCode;
+        if (status >= 400 && status < 500 && status != 408 && status != 429) {
+          syncError.value = _messageOf(response.body, 'Update failed');
+          // Edits queued while this request was out were not rejected.
+          _setPending(Map.of(_pending)..removeWhere((k, v) => sending[k] == v));
+          await _persist();
+          await refresh(userId, forceRefresh: true);
+          continue;
+        }
+        _scheduleRetry();
+        return;
+      } catch (e) {
+        debugPrint('Profile sync failed, will retry: $e');
+        _scheduleRetry();
+        return;
+      }
+    }
+  }
+
+  static void _scheduleRetry() {
+    _retryTimer?.cancel();
+    final factor = pow(2, min(_attempts, 16)).toInt();
+    final delay = retryBase * factor;
+    _attempts++;
+    _retryTimer = Timer(delay > maxBackoff ? maxBackoff : delay, () {
+      _retryTimer = null;
+      _drain();
+    });
+  }
+
+  static void _applyServer(String userId, String body) {
+    try {
+      final server = UserProfile.fromJson(userId, jsonDecode(body));
+      profile.value = server.apply(_pending);
+      _persist();
+    } catch (e) {
+      debugPrint('Error parsing profile: $e');
+    }
+  }
+
+  static void _setPending(Map<String, String> pending) {
+    _pending = pending;
+    hasPendingEdits.value = pending.isNotEmpty;
+  }
+
+  static String _messageOf(String body, String fallback) {
+    try {
+      return jsonDecode(body)['message'] ?? fallback;
+    } catch (_) {
+      return fallback;
+    }
+  }
+
+  static Future<File> _file() async {
+    _root ??= await getApplicationSupportDirectory();
+    return File('${_root!.path}/profile.json');
+  }
+
+  static Future<void> _load() async {
+    try {
+      final file = await _file();
+      if (!await file.exists()) return;
+      final data = jsonDecode(await file.readAsString()) as Map<String, dynamic>;
+      final cached = data['profile'] as Map<String, dynamic>?;
+      if (cached != null) profile.value = UserProfile.fromJson(cached['id'], cached);
+      _setPending(Map<String, String>.from(data['pending'] ?? const {}));
+    } catch (e) {
+      debugPrint('Error loading profile cache: $e');
+    }
+  }
+
+  static Future<void> _persist() async {
+    try {
+      final file = await _file();
+      final tmp = File('${file.path}.tmp');
+      await tmp.writeAsString(
+        jsonEncode({'profile': profile.value?.toJson(), 'pending': _pending}),
+        flush: true,
+      );
+      await tmp.rename(file.path);
+    } catch (e) {
+      debugPrint('Error saving profile cache: $e');
+    }
+  }
+
+  @visibleForTesting
+  static void debugReset({Directory? root, ApiClient? client}) {
+    _retryTimer?.cancel();
+    _retryTimer = null;
+    _root = root;
+    _clientOverride = client;
+    _loading = null;
+    _draining = null;
+    _attempts = 0;
+    _setPending({});
+    profile.value = null;
+    syncError.value = null;
+  }
+}
+
+/// Outcome of a request that cannot be queued.
+class ApiResult {
+  final bool success;
+  final bool offline;
+  final String? message;
+
+  const ApiResult._(this.success, this.offline, this.message);
+
+  factory ApiResult.ok() => const ApiResult._(true, false, null);
+  factory ApiResult.rejected(String message) => ApiResult._(false, false, message);
+  factory ApiResult.offline() => const ApiResult._(false, true, 'Network error occurred');
+}
@@ -0,0 +1,145 @@
+import 'dart:async';
+import 'dart:io';
+import 'dart:typed_data';
+import 'package:flutter/foundation.dart';
+import 'app_data.dart';
+import 'app_store.dart';
+import 'icon_palette.dart';
+
+/// The apps placed on the web, shared by every screen.
+///
+/// The list is read from [SelectedAppsStore] once. After that screens edit it
+/// through [add], [remove], [insert], [update] and [replace], which change
+/// it in place and save it in the background. Widgets that draw a single web
+/// slot listen to [slot] and only rebuild when that slot's app changes.
+/// Lists and counters listen to [apps]. [showInOrder] rearranges the slots
+/// for display only; [apps] and the saved list keep the user's order.
+class SelectionRepository {
+  static const int maxSlots = 8;
+
+  static final ValueNotifier<List<SocialApp>> apps = ValueNotifier(const []);
+  static final List<ValueNotifier<SocialApp?>> _slots =
+      List.generate(maxSlots, (_) => ValueNotifier<SocialApp?>(null));
+
+  static Future<void>? _loading;
+  static List<String> _displayOrder = const [];
+
+  static bool get isLoaded => _loading != null;
+
+  /// False for a user who never saved a selection, as opposed to one who
+  /// removed every app. Valid once [load] has finished.
+  static bool get hasStoredSelection => Platform.isIOS || SelectedAppsStore.hasSaved;
+
+  /// Loads the saved selection; later calls reuse the first load.
+  static Future<void> load() => _loading ??= _load();
+
+  static Future<void> _load() async {
+    if (Platform.isIOS) {
+      // iOS always shows the built-in list; nothing is persisted there.
+      _set(allSocialApps.take(maxSlots).toList(), persist: false);
+      return;
+    }
+    _set(await SelectedAppsStore.load(), persist: false);
+    unawaited(_refreshColors());
+  }
+
+  // Selections saved before colors came from icons still carry the name-hash
+  // color; recolor them from their icons once.
+  static Future<void> _refreshColors() => Future.wait(apps.value.map(_recolor));
+
+  // Apps can arrive with icon bytes but the name-hash color, e.g. from the
+  // installed-app index; the glow always comes from the icon.
+  static Future<void> _recolor(SocialApp app) async {
+    final icon = app.icon;
+    if (icon is! Uint8List) return;
+    final color = await IconPalette.colorOf(app.packageName, icon);
+    if (color == null) return;
+    // Recolor what is on the web now, unless it was removed or its icon changed.
+    final index = apps.value.indexWhere((a) => a.packageName == app.packageName);
+    if (index == -1) return;
+    final current = apps.value[index];
+    if (identical(current.icon, icon) && current.color.value != color.value) {
+      update(current.copyWith(color: color));
+    }
+  }
+
+  static ValueListenable<SocialApp?> slot(int index) => _slots[index];
+
+  /// Shows the slots in [packageNames] order, e.g. most used first, without
+  /// changing the saved selection. Apps not named follow in saved order.
+  static void showInOrder(List<String> packageNames) {
+    _displayOrder = List.unmodifiable(packageNames);
+    _updateSlots(apps.value);
+  }
+
+  /// [apps] in the order the slots show them.
+  static List<SocialApp> get displayed => _ordered(apps.value);
+
+  static List<SocialApp> _ordered(List<SocialApp> saved) {
+    if (_displayOrder.isEmpty) return saved;
+    final rank = {for (var i = 0; i < _displayOrder.length; i++) _displayOrder[i]: i};
+    int rankOf(int index) => rank[saved[index].packageName] ?? _displayOrder.length + index;
+    final indices = List.generate(saved.length, (i) => i)
+      ..sort((a, b) => rankOf(a).compareTo(rankOf(b)));
+    return [for (final i in indices) saved[i]];
+  }
+
+  static bool contains(String packageName) =>
+      apps.value.any((app) => app.packageName == packageName);
+
+  static bool get isFull => apps.value.length >= maxSlots;
+
+  /// Appends [app]; returns false when the web is full or already has it.
+  static bool add(SocialApp app) {
+    if (isFull || contains(app.packageName)) return false;
+    _set([...apps.value, app]);
+    unawaited(_recolor(app));
+    return true;
+  }
+
+  static void insert(int index, SocialApp app) {
+    if (isFull || contains(app.packageName)) return;
+    final next = List.of(apps.value)..insert(index.clamp(0, apps.value.length), app);
+    _set(next);
+    unawaited(_recolor(app));
+  }
+
+  /// Removes [packageName] and returns its former index, or -1.
+  static int remove(String packageName) {
+    final index = apps.value.indexWhere((app) => app.packageName == packageName);
+    if (index == -1) return -1;
+    _set(List.of(apps.value)..removeAt(index));
+    return index;
+  }
+
+  /// Swaps in a newer copy of an app already on the web, e.g. with its icon
+  /// or icon color.
+  static void update(SocialApp app) {
+    final index = apps.value.indexWhere((a) => a.packageName == app.packageName);
+    if (index == -1) return;
+    _set(List.of(apps.value)..[index] = app);
+  }
+
+  static void replace(List<SocialApp> next) => _set(List.of(next.take(maxSlots)));
+
+  static void _set(List<SocialApp> next, {bool persist = true}) {
+    apps.value = List.unmodifiable(next);
+    _updateSlots(next);
+    if (persist && !Platform.isIOS) SelectedAppsStore.save(next);
+  }
+
+  static void _updateSlots(List<SocialApp> saved) {
+    final shown = _ordered(saved);
+    for (var i = 0; i < maxSlots; i++) {
+      final app = i < shown.length ? shown[i] : null;
+      final current = _slots[i].value;
+      // Same package, icon and color: the slot looks identical, keep it quiet.
+      if (current?.packageName == app?.packageName &&
+          identical(current?.icon, app?.icon) &&
+          current?.color.value == app?.color.value) {
+        continue;
+      }
+      _slots[i].value = app;
+    }
+  }
+}
@@ -1,14 +1,11 @@
 import 'package:flutter/material.dart';
 import 'My_Apps.dart';
 import 'add_app_screen.dart';
-import 'app_data.dart';
 import 'my_account_screen.dart';
 import 'login_screen.dart';
 
 class SettingsScreen extends StatelessWidget {
-  final List<SocialApp> selectedApps;
-
-  const SettingsScreen({Key? key, required this.selectedApps}) : super(key: key);
+  const SettingsScreen({Key? key}) : super(key: key);
 
   @override
   Widget build(BuildContext context) {
@@ -69,7 +66,7 @@ class SettingsScreen extends StatelessWidget {
           Navigator.push(
             context,
             MaterialPageRoute(
-              builder: (context) => AddAppsScreen(initialSelectedApps: selectedApps),
+              builder: (context) => const AddAppsScreen(),
             ),
           );
         },
@@ -96,7 +93,7 @@ class SettingsScreen extends StatelessWidget {
                   Navigator.push(
                     context,
                     MaterialPageRoute(
-                      builder: (context) => SettingsScreen(selectedApps: selectedApps),
+                      builder: (context) => const SettingsScreen(),
                     ),
                   );
                 },
@@ -120,7 +117,7 @@ class SettingsScreen extends StatelessWidget {
           Navigator.push(
             context,
             MaterialPageRoute(
-              builder: (context) => MyAppsScreen(selectedApps: selectedApps),
+              builder: (context) => const MyAppsScreen(),
             ),
           );
         }
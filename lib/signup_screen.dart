@@ -1,8 +1,8 @@
 import 'package:flutter/material.dart';
-import 'package:http/http.dart' as http;
+import 'app_asset.dart';
+import 'assets.dart';
 import 'dart:convert';
-
-const String baseUrl = 'https://my-backend-production-d82c.up.railway.app';
+import 'api_client.dart';
 
 class SignupScreen extends StatefulWidget {
   const SignupScreen({super.key});
@@ -34,16 +34,11 @@ class _SignupScreenState extends State<SignupScreen> {
     });
 
     try {
-      final url = Uri.parse('$baseUrl/users');
-      final response = await http.post(
-        url,
-        headers: {'Content-Type': 'application/json'},
-        body: jsonEncode({
-          'fullName': fullNameController.text.trim(),
-          'email': emailController.text.trim(),
-          'password': passwordController.text,
-        }),
-      );
+      final response = await ApiClient.instance.post('/users', {
+        'fullName': fullNameController.text.trim(),
+        'email': emailController.text.trim(),
+        'password': passwordController.text,
+      });
 
       if (response.statusCode == 201) {
         _showSuccessDialog();
@@ -125,9 +120,9 @@ class _SignupScreenState extends State<SignupScreen> {
           Container(
             width: double.infinity,
             height: double.infinity,
-            decoration: const BoxDecoration(
+            decoration: BoxDecoration(
               image: DecorationImage(
-                image: AssetImage('assets/splash/image 1-2.png'),
+                image: Assets.splashImage1.fullScreen(context),
                 fit: BoxFit.cover,
               ),
             ),
@@ -189,7 +184,7 @@ class _SignupScreenState extends State<SignupScreen> {
                   key: _formKey,
                   child: Column(
                     children: [
-                      Image.asset('assets/splash/Group 1410092262.png', height: 100),
+                      AssetImageView(Assets.splashGroup1410092262, height: 100),
                       const SizedBox(height: 50),
                       Card(
                         shape: RoundedRectangleBorder(borderRadius: BorderRadius.circular(20)),
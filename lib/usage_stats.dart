@@ -0,0 +1,208 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:io';
+import 'dart:math';
+import 'dart:typed_data';
+import 'package:flutter/material.dart';
+import 'package:path_provider/path_provider.dart';
+
+/// On-device record of which apps are launched, and when.
+///
+/// The last [capacity] launches are kept in a ring buffer of two `uint32`s
+/// each: minutes since the epoch and an index into a small package table.
+/// The whole thing is a few KB and is saved to `<app support>/usage.bin`.
+/// [score] weighs every launch of a package by how recent it is (half-life
+/// [halfLife]) and how close its time of day is to now, so [rank] puts
+/// the apps likely to be opened next first. [export] writes the raw
+/// records and current scores as JSON for tuning.
+class UsageStats {
+  static const int capacity = 1024;
+  static const Duration halfLife = Duration(days: 14);
+  static const int _magic = 0x55534731; // "USG1"
+
+  static final Uint32List _minutes = Uint32List(capacity);
+  static final Uint16List _packageIds = Uint16List(capacity);
+  static final List<String> _packages = [];
+  static final Map<String, int> _ids = {};
+  static int _head = 0;
+  static int _count = 0;
+
+  static Future<void>? _loading;
+  static Timer? _persistTimer;
+  static File? _file;
+
+  static int get length => _count;
+
+  static Future<void> load() => _loading ??= _load();
+
+  /// Records a launch of [packageName] at [at] (default now).
+  static void record(String packageName, {DateTime? at}) {
+    final id = _ids[packageName] ??= (_packages..add(packageName)).length - 1;
+    _minutes[_head] = (at ?? DateTime.now()).millisecondsSinceEpoch ~/ 60000;
+    _packageIds[_head] = id;
+    _head = (_head + 1) % capacity;
+    if (_count < capacity) _count++;
+
+    _persistTimer?.cancel();
+    _persistTimer = Timer(const Duration(seconds: 2), _persist);
+  }
+
+  /// How likely each recorded package is to be launched around [now].
+  static Map<String, double> scores({DateTime? now}) => _scores(now ?? DateTime.now());
+
+  static double score(String packageName, {DateTime? now}) => scores(now: now)[packageName] ?? 0;
+
+  /// [packageNames] ordered by [score], highest first. Packages with equal
+  /// scores (e.g. never launched) keep their relative order.
+  static List<String> rank(List<String> packageNames, {DateTime? now}) {
+    final totals = _scores(now ?? DateTime.now());
+    final indexed = List.generate(packageNames.length, (i) => i);
+    indexed.sort((a, b) {
+      final byScore = (totals[packageNames[b]] ?? 0).compareTo(totals[packageNames[a]] ?? 0);
+      return byScore != 0 ? byScore : a.compareTo(b);
+    });
+    return [for (final i in indexed) packageNames[i]];
+  }
+
+  // One pass over the ring; cheap enough to run per call at this capacity.
+  static Map<String, double> _scores(DateTime now) {
+    final nowMinutes = now.millisecondsSinceEpoch ~/ 60000;
+    final nowOfDay = now.hour * 60 + now.minute;
+    final decayPerMinute = ln2 / halfLife.inMinutes;
+    final offset = now.timeZoneOffset.inMinutes;
+    final totals = <String, double>{};
+
+    for (var i = 0; i < _count; i++) {
+      final at = _minutes[i];
+      final age = max(0, nowMinutes - at);
+      final ofDay = (at + offset) % 1440;
+      var gap = (ofDay - nowOfDay).abs();
+      if (gap > 720) gap = 1440 - gap;
+
+      // Same hour counts fully, the opposite side of the day a quarter.
+      final timeOfDay = 0.25 + 0.75 * (1 - gap / 720) * (1 - gap / 720);
+      final weight = exp(-decayPerMinute * age) * timeOfDay;
+      final package = _packages[_packageIds[i]];
+      totals[package] = (totals[package] ?? 0) + weight;
+    }
+    return totals;
+  }
+
+  /// Writes the records and scores to `<documents>/perf/` and returns the path.
+  static Future<String?> export() async {
+    try {
+      final now = DateTime.now();
+      final records = [
+        for (var n = 0; n < _count; n++)
+          () {
+            final i = (_head - _count + n + capacity) % capacity;
+            return {
+              'package': _packages[_packageIds[i]],
+              'at': DateTime.fromMillisecondsSinceEpoch(_minutes[i] * 60000).toIso8601String(),
+            };
+          }(),
+      ];
+      final dir = Directory('${(await getApplicationDocumentsDirectory()).path}/perf');
+      await dir.create(recursive: true);
+      final file = File('${dir.path}/usage-${now.millisecondsSinceEpoch}.json');
+      await file.writeAsString(const JsonEncoder.withIndent('  ').convert({
+        'exportedAt': now.toIso8601String(),
+        'halfLifeDays': halfLife.inDays,
+        'scores': _scores(now),
+        'records': records,
+      }));
+      return file.path;
+    } catch (e) {
+      debugPrint('Error exporting usage stats: $e');
+      return null;
+    }
+  }
+
+  static Future<File> _target() async {
+    if (_file != null) return _file!;
+    final support = await getApplicationSupportDirectory();
+    return _file = File('${support.path}/usage.bin');
+  }
+
+  // Layout: magic, head, count, package count, then [capacity] minute
+  // stamps and package ids, then the package names as UTF-8 lines.
+  static Future<void> _persist() async {
+    _persistTimer = null;
+    try {
+      final names = utf8.encode(_packages.join('\n'));
+      final data = ByteData(16 + capacity * 6 + names.length)
+        ..setUint32(0, _magic)
+        ..setUint32(4, _head)
+        ..setUint32(8, _count)
+        ..setUint32(12, _packages.length);
+      var offset = 16;
+      for (var i = 0; i < capacity; i++, offset += 4) {
+        data.setUint32(offset, _minutes[i]);
+      }
+      for (var i = 0; i < capacity; i++, offset += 2) {
+        data.setUint16(offset, _packageIds[i]);
+      }
+      final bytes = data.buffer.asUint8List()..setRange(offset, offset + names.length, names);
+
+      final file = await _target();
+      final tmp = File('${file.path}.tmp');
+      await tmp.writeAsBytes(bytes, flush: true);
+      await tmp.rename(file.path);
+    } catch (e) {
+      debugPrint('Error saving usage stats: $e');
+    }
+  }
+
+  static Future<void> _load() async {
+    try {
+      final file = await _target();
+      if (!await file.exists()) return;
+      final bytes = await file.readAsBytes();
+      final data = ByteData.sublistView(bytes);
+      if (bytes.length < 16 + capacity * 6 || data.getUint32(0) != _magic) return;
+
+      // Launches recorded before the file was read go after the saved ones.
+      final early = [
+        for (var n = 0; n < _count; n++)
+          (_minutes[n], _packages[_packageIds[n]]),
+      ];
+
+      final names = utf8.decode(bytes.sublist(16 + capacity * 6));
+      _packages
+        ..clear()
+        ..addAll(names.isEmpty ? const [] : names.split('\n'));
+      _ids
+        ..clear()
+        ..addAll({for (var i = 0; i < _packages.length; i++) _packages[i]: i});
+      _head = data.getUint32(4) % capacity;
+      _count = min(data.getUint32(8), capacity);
+      var offset = 16;
+      for (var i = 0; i < capacity; i++, offset += 4) {
+        _minutes[i] = data.getUint32(offset);
+      }
+      for (var i = 0; i < capacity; i++, offset += 2) {
+        _packageIds[i] = data.getUint16(offset);
+      }
+
+      for (final (minutes, package) in early) {
+        record(package, at: DateTime.fromMillisecondsSinceEpoch(minutes * 60000));
+      }
+    } catch (e) {
+      debugPrint('Error loading usage stats: $e');
+    }
+  }
+
+  @visibleForTesting
+  static void debugReset({Directory? root}) {
+    _persistTimer?.cancel();
+    _persistTimer = null;
+    _minutes.fillRange(0, capacity, 0);
+    _packageIds.fillRange(0, capacity, 0);
+    _packages.clear();
+    _ids.clear();
+    _head = 0;
+    _count = 0;
+    _loading = null;
+    _file = root == null ? null : File('${root.path}/usage.bin');
+  }
+}
@@ -0,0 +1,111 @@
+import 'dart:typed_data';
+import 'dart:ui' as ui;
+import 'package:flutter/material.dart';
+import '../icon_cache.dart';
+
+/// Draws an app icon from either [IconData] or raw image bytes.
+///
+/// Byte icons go through [IconCache], so each package is decoded once at the
+/// pixel size it is shown at and shared by every screen.
+class AppIcon extends StatefulWidget {
+  final String packageName;
+  final dynamic icon;
+  final double size;
+  final Color? iconColor;
+
+  const AppIcon({
+    super.key,
+    required this.packageName,
+    required this.icon,
+    this.size = 24.0,
+    this.iconColor,
+  });
+
+  @override
+  State<AppIcon> createState() => _AppIconState();
+}
+
+class _AppIconState extends State<AppIcon> {
+  ui.Image? _image;
+  bool _failed = false;
+  int _sizePx = 0;
+
+  @override
+  void didChangeDependencies() {
+    super.didChangeDependencies();
+    _resolve();
+  }
+
+  @override
+  void didUpdateWidget(AppIcon oldWidget) {
+    super.didUpdateWidget(oldWidget);
+    if (oldWidget.packageName != widget.packageName ||
+        oldWidget.size != widget.size ||
+        !identical(oldWidget.icon, widget.icon)) {
+      _image?.dispose();
+      _image = null;
+      _resolve();
+    }
+  }
+
+  Uint8List? get _bytes {
+    final icon = widget.icon;
+    if (icon is Uint8List) return icon;
+    if (icon is List<int>) return Uint8List.fromList(icon);
+    return null;
+  }
+
+  void _resolve() {
+    final bytes = _bytes;
+    if (bytes == null) return;
+
+    final sizePx = (widget.size * MediaQuery.devicePixelRatioOf(context)).round();
+    if (_image != null && sizePx == _sizePx) return;
+
+    _image?.dispose();
+    _image = IconCache.peek(widget.packageName, sizePx);
+    _sizePx = sizePx;
+    _failed = false;
+    if (_image != null) return;
+
+    final packageName = widget.packageName;
+    IconCache.resolve(packageName, bytes, sizePx).then((image) {
+      if (!mounted || packageName != widget.packageName || sizePx != _sizePx) {
+        image?.dispose();
+        return;
+      }
+      setState(() {
+        _image?.dispose();
+        _image = image;
+        _failed = image == null;
+      });
+    });
+  }
+
+  @override
+  void dispose() {
+    _image?.dispose();
+    super.dispose();
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    final icon = widget.icon;
+    if (icon is IconData) {
+      return Icon(icon, size: widget.size, color: widget.iconColor);
+    }
+    if (icon == null) {
+      // Icon bytes are still being fetched.
+      return SizedBox.square(dimension: widget.size);
+    }
+    if (_failed || icon is! List<int>) {
+      return Icon(Icons.error, size: widget.size, color: Colors.red);
+    }
+    return RawImage(
+      image: _image,
+      width: widget.size,
+      height: widget.size,
+      filterQuality: FilterQuality.medium,
+    );
+  }
+}
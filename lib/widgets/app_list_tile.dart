@@ -21,7 +21,7 @@ class AppListTile extends StatelessWidget {
       title: Text(app.name),
       secondary: CircleAvatar(
         backgroundColor: app.color,
-        child: Icon(app.icon, color: Colors.white),
+        child: app.getIconWidget(iconColor: Colors.white),
       ),
       value: isSelected,
       onChanged: onChanged,
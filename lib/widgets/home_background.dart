@@ -0,0 +1,170 @@
+import 'dart:math';
+import 'dart:ui' as ui;
+import 'package:flutter/material.dart';
+import 'package:flutter/scheduler.dart';
+import '../animation_scheduler.dart';
+import '../app_asset.dart';
+import '../assets.dart';
+import '../perf_monitor.dart';
+
+/// Home screen backdrop: the slowly turning web plus the two corner glows.
+///
+/// The glows never change, so they are rasterized once per size into an
+/// image. The web image sits behind its own [RepaintBoundary] and only its
+/// transform animates, so ticks are pure compositing. The motion is
+/// decorative: [AnimationScheduler] stops it while home is hidden or the
+/// user asked for less motion, and caps how often it moves otherwise.
+class HomeBackground extends StatefulWidget {
+  const HomeBackground({super.key});
+
+  /// One sweep; the web turns and grows for this long, then reverses.
+  static const Duration period = Duration(seconds: 100);
+
+  @override
+  State<HomeBackground> createState() => _HomeBackgroundState();
+}
+
+class _HomeBackgroundState extends State<HomeBackground>
+    with TickerProviderStateMixin, ScheduledAnimation {
+  late final AnimationController _controller;
+  late final Animation<double> _scale;
+  late final Animation<double> _turns;
+  late final Ticker _ticker;
+
+  // Time already played before the ticker was last stopped.
+  Duration _played = Duration.zero;
+  Duration _sinceStart = Duration.zero;
+
+  @override
+  void initState() {
+    super.initState();
+    // Driven by hand from the throttled ticker, never by its own ticker.
+    _controller = AnimationController(vsync: this);
+    _ticker = createTicker(_onTick);
+
+    _scale = Tween<double>(begin: 1.0, end: 1.1).animate(
+      CurvedAnimation(parent: _controller, curve: Curves.easeInOut),
+    );
+    _turns = _controller;
+  }
+
+  @override
+  void onScheduleChanged() {
+    if (isAnimating) {
+      if (!_ticker.isActive) _ticker.start();
+    } else if (_ticker.isActive) {
+      _played += _sinceStart;
+      _sinceStart = Duration.zero;
+      _ticker.stop();
+    }
+  }
+
+  void _onTick(Duration elapsed) {
+    _sinceStart = elapsed;
+    if (!shouldStep(elapsed)) return;
+    final period = HomeBackground.period.inMicroseconds;
+    final t = (_played + elapsed).inMicroseconds % (2 * period) / period;
+    _controller.value = t <= 1 ? t : 2 - t;
+  }
+
+  @override
+  void dispose() {
+    _ticker.dispose();
+    _controller.dispose();
+    super.dispose();
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    PerfMonitor.countBuild('background');
+    return Stack(
+      fit: StackFit.expand,
+      children: [
+        ScaleTransition(
+          scale: _scale,
+          child: RotationTransition(
+            turns: _turns,
+            child: RepaintBoundary(
+              child: AssetImageView(
+                Assets.homeVector,
+                fit: BoxFit.cover,
+                opacity: const AlwaysStoppedAnimation(0.7),
+              ),
+            ),
+          ),
+        ),
+        const RepaintBoundary(child: _CornerGlows()),
+      ],
+    );
+  }
+}
+
+/// The pink and blue corner gradients, drawn once into a cached image.
+class _CornerGlows extends StatefulWidget {
+  const _CornerGlows();
+
+  @override
+  State<_CornerGlows> createState() => _CornerGlowsState();
+}
+
+class _CornerGlowsState extends State<_CornerGlows> {
+  ui.Image? _image;
+  Size _size = Size.zero;
+  double _ratio = 0;
+
+  ui.Image _rasterize(Size size, double ratio) {
+    final recorder = ui.PictureRecorder();
+    final canvas = Canvas(recorder)..scale(ratio);
+    final rect = Offset.zero & size;
+
+    for (final gradient in const [
+      RadialGradient(
+        center: Alignment(1.3, -1.0),
+        radius: 1.5,
+        colors: [Color(0xAAAD1457), Colors.transparent],
+        stops: [0.1, 1.0],
+      ),
+      RadialGradient(
+        center: Alignment(-1.3, 1.0),
+        radius: 1.5,
+        colors: [Color(0xAA1A237E), Colors.transparent],
+        stops: [0.1, 1.0],
+      ),
+    ]) {
+      canvas.drawRect(rect, Paint()..shader = gradient.createShader(rect));
+    }
+
+    return recorder.endRecording().toImageSync(
+      max(1, (size.width * ratio).ceil()),
+      max(1, (size.height * ratio).ceil()),
+    );
+  }
+
+  @override
+  void dispose() {
+    _image?.dispose();
+    super.dispose();
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    final ratio = MediaQuery.devicePixelRatioOf(context);
+    return LayoutBuilder(
+      builder: (context, constraints) {
+        final size = constraints.biggest;
+        if (_image == null || size != _size || ratio != _ratio) {
+          _image?.dispose();
+          _image = _rasterize(size, ratio);
+          _size = size;
+          _ratio = ratio;
+        }
+        return RawImage(
+          image: _image,
+          width: size.width,
+          height: size.height,
+          fit: BoxFit.fill,
+        );
+      },
+    );
+  }
+}
@@ -0,0 +1,263 @@
+import 'dart:math';
+import 'dart:typed_data';
+import 'dart:ui' as ui;
+import 'package:flutter/material.dart';
+import 'package:flutter/scheduler.dart';
+import '../animation_scheduler.dart';
+
+/// Glowing background particles, stepped by a ticker and drawn in one call.
+///
+/// Particle state lives in flat typed buffers and every particle is drawn as
+/// an instance of one pre-rendered dot sprite through [Canvas.drawRawAtlas].
+/// The simulation advances at most [frameRate] times per second, or less
+/// when [AnimationScheduler] caps it, and stops whenever the scheduler says
+/// decorative motion should. When [adaptive] is on the visible particle count
+/// drops while frames miss [frameBudget], then slowly recovers once they fit
+/// again.
+class ParticleField extends StatefulWidget {
+  final int maxParticles;
+  final double frameRate;
+  final bool adaptive;
+  final Duration frameBudget;
+
+  const ParticleField({
+    super.key,
+    this.maxParticles = 50,
+    this.frameRate = 30,
+    this.adaptive = true,
+    this.frameBudget = const Duration(microseconds: 16667),
+  });
+
+  @override
+  State<ParticleField> createState() => _ParticleFieldState();
+}
+
+class _ParticleFieldState extends State<ParticleField>
+    with SingleTickerProviderStateMixin, ScheduledAnimation {
+  late final ParticleSystem _system;
+  late final Ticker _ticker;
+  Duration _lastElapsed = Duration.zero;
+
+  @override
+  void initState() {
+    super.initState();
+    _system = ParticleSystem(widget.maxParticles);
+    _ticker = createTicker(_onTick);
+    if (widget.adaptive) SchedulerBinding.instance.addTimingsCallback(_onTimings);
+  }
+
+  @override
+  void didUpdateWidget(ParticleField oldWidget) {
+    super.didUpdateWidget(oldWidget);
+    if (oldWidget.maxParticles != widget.maxParticles) {
+      _system.capacity = widget.maxParticles;
+    }
+    if (oldWidget.adaptive != widget.adaptive) {
+      if (widget.adaptive) {
+        SchedulerBinding.instance.addTimingsCallback(_onTimings);
+      } else {
+        SchedulerBinding.instance.removeTimingsCallback(_onTimings);
+        _system.activeCount = _system.capacity;
+      }
+    }
+  }
+
+  @override
+  double get frameRate => min(widget.frameRate, super.frameRate);
+
+  @override
+  void onScheduleChanged() {
+    if (isAnimating) {
+      if (!_ticker.isActive) {
+        _lastElapsed = Duration.zero;
+        _ticker.start();
+      }
+    } else {
+      _ticker.stop();
+    }
+  }
+
+  void _onTick(Duration elapsed) {
+    if (!shouldStep(elapsed)) return;
+    final delta = elapsed - _lastElapsed;
+    _lastElapsed = elapsed;
+    // Clamp so a long pause doesn't teleport particles.
+    _system.step(min(delta.inMicroseconds / 1e6, 0.1));
+  }
+
+  void _onTimings(List<ui.FrameTiming> timings) {
+    var over = 0;
+    for (final timing in timings) {
+      if (timing.buildDuration > widget.frameBudget ||
+          timing.rasterDuration > widget.frameBudget) {
+        over++;
+      }
+    }
+
+    if (over * 4 > timings.length) {
+      _system.activeCount = max(ParticleSystem.minParticles, (_system.activeCount * 0.75).floor());
+    } else if (over == 0 && _system.activeCount < _system.capacity) {
+      _system.activeCount += 1;
+    }
+  }
+
+  @override
+  void dispose() {
+    if (widget.adaptive) SchedulerBinding.instance.removeTimingsCallback(_onTimings);
+    _ticker.dispose();
+    _system.dispose();
+    super.dispose();
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    return IgnorePointer(
+      child: RepaintBoundary(
+        child: CustomPaint(
+          size: Size.infinite,
+          painter: _ParticlePainter(_system),
+        ),
+      ),
+    );
+  }
+}
+
+/// Particle positions and velocities in normalized (0..1) coordinates.
+class ParticleSystem extends ChangeNotifier {
+  static const int minParticles = 10;
+  static const double _maxSpeed = 0.12; // screen fractions per second
+  static const double _spriteRadius = 8;
+
+  final Random _random = Random();
+  ui.Image? _sprite;
+
+  late Float32List _x, _y, _vx, _vy, _scale;
+  late Int32List _colors;
+  late Float32List _transforms;
+  late Float32List _rects;
+  int _capacity = 0;
+  int _active = 0;
+
+  ParticleSystem(int capacity) {
+    this.capacity = capacity;
+  }
+
+  int get capacity => _capacity;
+
+  set capacity(int value) {
+    _capacity = value;
+    _x = Float32List(value);
+    _y = Float32List(value);
+    _vx = Float32List(value);
+    _vy = Float32List(value);
+    _scale = Float32List(value);
+    _colors = Int32List(value);
+    _transforms = Float32List(value * 4);
+    _rects = Float32List(value * 4);
+
+    for (var i = 0; i < value; i++) {
+      _x[i] = _random.nextDouble();
+      _y[i] = _random.nextDouble();
+      final speed = _random.nextDouble() * _maxSpeed;
+      final angle = _random.nextDouble() * 2 * pi;
+      _vx[i] = cos(angle) * speed;
+      _vy[i] = sin(angle) * speed;
+      _scale[i] = (_random.nextDouble() * 2 + 1) / _spriteRadius;
+      _colors[i] = _randomColor();
+
+      _rects[i * 4 + 2] = _spriteRadius * 2;
+      _rects[i * 4 + 3] = _spriteRadius * 2;
+    }
+    _active = value;
+  }
+
+  int get activeCount => _active;
+
+  set activeCount(int value) {
+    final clamped = value.clamp(0, _capacity);
+    if (clamped == _active) return;
+    _active = clamped;
+    notifyListeners();
+  }
+
+  void step(double seconds) {
+    for (var i = 0; i < _active; i++) {
+      _x[i] += _vx[i] * seconds;
+      _y[i] += _vy[i] * seconds;
+
+      // Bounce off the edges, pointing back inside so a particle cannot
+      // flip direction every step while it is out of bounds.
+      if (_x[i] < 0 || _x[i] > 1) {
+        _x[i] = _x[i].clamp(0.0, 1.0);
+        _vx[i] = _x[i] == 0 ? _vx[i].abs() : -_vx[i].abs();
+      }
+      if (_y[i] < 0 || _y[i] > 1) {
+        _y[i] = _y[i].clamp(0.0, 1.0);
+        _vy[i] = _y[i] == 0 ? _vy[i].abs() : -_vy[i].abs();
+      }
+
+      // Occasionally shift hue, ~1% of particles per 60Hz frame.
+      if (_random.nextDouble() < 0.6 * seconds) _colors[i] = _randomColor();
+    }
+    notifyListeners();
+  }
+
+  int _randomColor() {
+    final accent = Colors.accents[_random.nextInt(Colors.accents.length)];
+    return (0x99 << 24) | (accent.value & 0x00ffffff);
+  }
+
+  ui.Image get sprite => _sprite ??= _renderSprite();
+
+  static ui.Image _renderSprite() {
+    const size = _spriteRadius * 2;
+    final recorder = ui.PictureRecorder();
+    Canvas(recorder).drawCircle(
+      const Offset(_spriteRadius, _spriteRadius),
+      _spriteRadius,
+      Paint()..color = Colors.white,
+    );
+    return recorder.endRecording().toImageSync(size.toInt(), size.toInt());
+  }
+
+  void paint(Canvas canvas, Size size) {
+    if (_active == 0) return;
+
+    for (var i = 0; i < _active; i++) {
+      final s = _scale[i];
+      final o = i * 4;
+      _transforms[o] = s;
+      _transforms[o + 1] = 0;
+      _transforms[o + 2] = _x[i] * size.width - s * _spriteRadius;
+      _transforms[o + 3] = _y[i] * size.height - s * _spriteRadius;
+    }
+
+    canvas.drawRawAtlas(
+      sprite,
+      Float32List.sublistView(_transforms, 0, _active * 4),
+      Float32List.sublistView(_rects, 0, _active * 4),
+      Int32List.sublistView(_colors, 0, _active),
+      BlendMode.modulate,
+      null,
+      Paint()..blendMode = BlendMode.plus,
+    );
+  }
+
+  @override
+  void dispose() {
+    _sprite?.dispose();
+    super.dispose();
+  }
+}
+
+class _ParticlePainter extends CustomPainter {
+  final ParticleSystem system;
+
+  _ParticlePainter(this.system) : super(repaint: system);
+
+  @override
+  void paint(Canvas canvas, Size size) => system.paint(canvas, size);
+
+  @override
+  bool shouldRepaint(_ParticlePainter oldDelegate) => oldDelegate.system != system;
+}
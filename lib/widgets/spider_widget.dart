@@ -1,6 +1,6 @@
 import 'package:flutter/material.dart';
-import 'dart:math'; // for sin, cos, pi
 import '../app_data.dart'; // Adjust path if needed
+import 'web_layout.dart';
 
 class SpiderWidget extends StatelessWidget {
   final List<SocialApp> selectedApps;
@@ -17,6 +17,7 @@ class SpiderWidget extends StatelessWidget {
     final center = Offset(150, 150);
     final double radius = 100;
     final int total = selectedApps.length;
+    final positions = WebLayout.ring(total, center, radius);
 
     return SizedBox(
       width: 300,
@@ -24,9 +25,8 @@ class SpiderWidget extends StatelessWidget {
       child: Stack(
         children: [
           ...List.generate(total, (index) {
-            final angle = (2 * pi / total) * index;
-            final iconX = center.dx + radius * cos(angle);
-            final iconY = center.dy + radius * sin(angle);
+            final iconX = positions[index].dx;
+            final iconY = positions[index].dy;
 
             return Positioned(
               left: iconX - 20,
@@ -36,10 +36,7 @@ class SpiderWidget extends StatelessWidget {
                 child: CircleAvatar(
                   backgroundColor: selectedApps[index].color,
                   radius: 20,
-                  child: Icon(
-                    selectedApps[index].icon,
-                    color: Colors.white,
-                  ),
+                  child: selectedApps[index].getIconWidget(iconColor: Colors.white),
                 ),
               ),
             );
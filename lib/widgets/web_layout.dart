@@ -0,0 +1,174 @@
+import 'dart:collection';
+import 'dart:math';
+import 'dart:ui' as ui;
+import 'package:flutter/material.dart';
+
+/// Slot geometry for the spider web, computed once per slot count.
+///
+/// With the default eight slots the centers follow the hand-tuned offsets
+/// that line icons up with the legs in `Vector (1).png`; any other count is
+/// laid out on an even ring, like [SpiderWidget].
+class WebLayout {
+  static const Size size = Size(300, 300);
+  static const double radius = 120;
+  static const int defaultSlots = 8;
+
+  static final Map<int, List<Offset>> _centers = {};
+  static final Map<String, List<Offset>> _rings = {};
+
+  // Per-leg nudges so the eight default slots sit on the drawn legs.
+  static const List<Offset> _legNudges = [
+    Offset(-55, -90),
+    Offset(5, -14),
+    Offset(45, -20),
+    Offset(35, 10),
+    Offset(33, 60),
+    Offset(35, 0),
+    Offset(-18, 2),
+    Offset(-55, -30),
+  ];
+
+  static const List<Color> legColors = [
+    Colors.blue,
+    Colors.red,
+    Colors.yellow,
+    Colors.lightBlueAccent,
+    Colors.pink,
+    Colors.orange,
+    Colors.purple,
+    Colors.green,
+  ];
+
+  /// Centers of [count] slots inside a [size] box.
+  static List<Offset> slotCenters([int count = defaultSlots]) {
+    return _centers.putIfAbsent(count, () {
+      final even = ring(count, size.center(Offset.zero), radius);
+      if (count != defaultSlots) return even;
+      return List.unmodifiable(List.generate(count, (i) => even[i] + _legNudges[i]));
+    });
+  }
+
+  /// Centers of [count] slots evenly spaced on a circle around [center].
+  static List<Offset> ring(int count, Offset center, double radius) {
+    return _rings.putIfAbsent('$count/${center.dx},${center.dy}/$radius', () {
+      return List.unmodifiable(List.generate(count, (index) {
+        final angle = (2 * pi / count) * index;
+        return center + Offset(radius * cos(angle), radius * sin(angle));
+      }));
+    });
+  }
+
+  static Color legColor(int index) => legColors[index % legColors.length];
+}
+
+/// Circular slot with a soft glow, where the glow is a cached texture.
+///
+/// Blurred [BoxShadow]s are re-rasterized whenever the slot repaints; here
+/// the halo is drawn once per color and device pixel ratio and afterwards
+/// only blitted. At most [maxHalos] textures are kept, least recently used
+/// first out. The halo reaches past the circle but never takes taps.
+class GlowSlot extends StatelessWidget {
+  static const double diameter = 40;
+  static const double _blur = 10;
+  static const double _spread = 2;
+
+  /// Room around the circle for the halo to fade out.
+  static const double margin = _spread + _blur * 2;
+  static const double extent = diameter + margin * 2;
+
+  static const int maxHalos = 24;
+
+  static final LinkedHashMap<String, ui.Image> _halos = LinkedHashMap();
+  static final Map<String, BoxDecoration> _fills = {};
+
+  final Color color;
+  final double fillOpacity;
+  final double glowOpacity;
+  final bool plusGlow;
+  final Widget? child;
+
+  const GlowSlot({
+    super.key,
+    required this.color,
+    required this.fillOpacity,
+    required this.glowOpacity,
+    this.plusGlow = false,
+    this.child,
+  });
+
+  static BoxDecoration _fill(Color color, double opacity) {
+    return _fills.putIfAbsent('${color.value}/$opacity', () {
+      return BoxDecoration(shape: BoxShape.circle, color: color.withOpacity(opacity));
+    });
+  }
+
+  // RawImage hands its render object a clone, so evicting a texture here
+  // never pulls it from under a slot that is still on screen.
+  static ui.Image _halo(Color color, double opacity, bool plusGlow, double ratio) {
+    final key = '${color.value}/$opacity/$plusGlow/$ratio';
+    final cached = _halos.remove(key);
+    if (cached != null) return _halos[key] = cached;
+
+    while (_halos.length >= maxHalos) {
+      _halos.remove(_halos.keys.first)!.dispose();
+    }
+    return _halos[key] = _drawHalo(color, opacity, plusGlow, ratio);
+  }
+
+  static ui.Image _drawHalo(Color color, double opacity, bool plusGlow, double ratio) {
+    final recorder = ui.PictureRecorder();
+    final canvas = Canvas(recorder)..scale(ratio);
+    const center = Offset(extent / 2, extent / 2);
+
+    canvas.drawCircle(
+      center,
+      diameter / 2 + _spread,
+      Paint()
+        ..color = color.withOpacity(opacity)
+        ..maskFilter = MaskFilter.blur(BlurStyle.normal, Shadow.convertRadiusToSigma(_blur)),
+    );
+
+    if (plusGlow) {
+      // Stand-in for the two blurred text shadows behind the '+'.
+      final stroke = Paint()
+        ..color = color
+        ..strokeWidth = 4
+        ..strokeCap = StrokeCap.round
+        ..maskFilter = MaskFilter.blur(BlurStyle.normal, Shadow.convertRadiusToSigma(8));
+      canvas
+        ..drawLine(center - const Offset(7, 0), center + const Offset(7, 0), stroke)
+        ..drawLine(center - const Offset(0, 7), center + const Offset(0, 7), stroke);
+    }
+
+    final px = (extent * ratio).ceil();
+    return recorder.endRecording().toImageSync(px, px);
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    final ratio = MediaQuery.devicePixelRatioOf(context);
+    return SizedBox.square(
+      dimension: extent,
+      child: Stack(
+        alignment: Alignment.center,
+        children: [
+          // RenderImage hit-tests its whole box, which would let a halo take
+          // taps meant for the neighbouring slot.
+          IgnorePointer(
+            child: RawImage(
+              image: _halo(color, glowOpacity, plusGlow, ratio),
+              width: extent,
+              height: extent,
+            ),
+          ),
+          Container(
+            width: diameter,
+            height: diameter,
+            decoration: _fill(color, fillOpacity),
+            child: child,
+          ),
+        ],
+      ),
+    );
+  }
+}
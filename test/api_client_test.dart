@@ -0,0 +1,91 @@
+import 'dart:convert';
+import 'dart:io';
+
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:spider/api_client.dart';
+
+void main() {
+  late HttpServer server;
+  late ApiClient client;
+  late int hits;
+  late String fullName;
+
+  setUp(() async {
+    hits = 0;
+    fullName = 'Ada';
+    server = await HttpServer.bind(InternetAddress.loopbackIPv4, 0);
+    server.listen((request) async {
+      hits++;
+      final body = jsonEncode({'fullName': fullName});
+      final etag = '"${body.hashCode}"';
+
+      // Slow enough that concurrent callers overlap.
+      await Future<void>.delayed(const Duration(milliseconds: 50));
+      if (request.headers.value('if-none-match') == etag) {
+        request.response.statusCode = HttpStatus.notModified;
+      } else {
+        request.response.headers.set('etag', etag);
+        request.response.write(body);
+      }
+      await request.response.close();
+    });
+    client = ApiClient(
+      baseUrl: 'http://${server.address.host}:${server.port}',
+      ttl: const Duration(milliseconds: 200),
+    );
+  });
+
+  tearDown(() async {
+    client.close();
+    await server.close(force: true);
+  });
+
+  test('concurrent identical GETs share one request', () async {
+    final responses = await Future.wait([
+      client.get('/users/1'),
+      client.get('/users/1'),
+      client.get('/users/1'),
+    ]);
+
+    expect(hits, 1);
+    expect(responses.map((r) => r.body).toSet(), hasLength(1));
+  });
+
+  test('fresh responses are served from cache', () async {
+    await client.get('/users/1');
+    final cached = await client.get('/users/1');
+
+    expect(hits, 1);
+    expect(jsonDecode(cached.body)['fullName'], 'Ada');
+  });
+
+  test('stale responses are returned at once and revalidated with the etag', () async {
+    await client.get('/users/1');
+    await Future<void>.delayed(const Duration(milliseconds: 250));
+
+    fullName = 'Grace';
+    String? revalidated;
+    final stale = await client.get(
+      '/users/1',
+      onRevalidated: (fresh) => revalidated = jsonDecode(fresh.body)['fullName'],
+    );
+
+    expect(jsonDecode(stale.body)['fullName'], 'Ada');
+    await Future<void>.delayed(const Duration(milliseconds: 150));
+    expect(hits, 2);
+    expect(revalidated, 'Grace');
+  });
+
+  test('unchanged data revalidates with a 304', () async {
+    await client.get('/users/1');
+    await Future<void>.delayed(const Duration(milliseconds: 250));
+
+    var called = false;
+    await client.get('/users/1', onRevalidated: (_) => called = true);
+    await Future<void>.delayed(const Duration(milliseconds: 150));
+
+    expect(hits, 2);
+    expect(called, isFalse);
+  });
+}
@@ -0,0 +1,89 @@
+import 'dart:async';
+import 'dart:typed_data';
+
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:spider/app_scanner.dart';
+
+void main() {
+  late Map<String, Completer<Uint8List?>> fetches;
+  late int fetchCount;
+  final defaultMax = AppScanner.maxIconBytes;
+
+  setUp(() {
+    fetches = {};
+    fetchCount = 0;
+    AppScanner.debugReset(fetchIcon: (packageName) {
+      fetchCount++;
+      return (fetches[packageName] = Completer()).future;
+    });
+  });
+
+  tearDown(() {
+    AppScanner.maxIconBytes = defaultMax;
+    AppScanner.debugReset();
+  });
+
+  Future<void> answer(String packageName, int bytes) async {
+    fetches[packageName]!.complete(Uint8List(bytes));
+    await pumpEventQueue();
+  }
+
+  test('icons are fetched once and counted once', () async {
+    final first = AppScanner.loadIcon('a');
+    final second = AppScanner.loadIcon('a');
+    expect(identical(first, second), isTrue);
+
+    await answer('a', 100);
+    expect(fetchCount, 1);
+    expect(AppScanner.iconBytes, 100);
+    expect(AppScanner.iconCount, 1);
+  });
+
+  test('least recently used icons are dropped over the budget', () async {
+    AppScanner.maxIconBytes = 250;
+    AppScanner.loadIcon('a');
+    await answer('a', 100);
+    AppScanner.loadIcon('b');
+    await answer('b', 100);
+
+    // Touching a makes b the oldest.
+    AppScanner.loadIcon('a');
+    AppScanner.loadIcon('c');
+    await answer('c', 100);
+
+    expect(AppScanner.iconBytes, 200);
+    expect(AppScanner.iconCount, 2);
+    AppScanner.loadIcon('b');
+    expect(fetchCount, 4, reason: 'b was dropped and is fetched again');
+    AppScanner.loadIcon('a');
+    expect(fetchCount, 4, reason: 'a was kept');
+  });
+
+  test('a fetch released before it finishes is not counted', () async {
+    AppScanner.loadIcon('a');
+    final stale = fetches['a']!;
+    AppScanner.releaseIcon('a');
+    AppScanner.loadIcon('a');
+
+    stale.complete(Uint8List(100));
+    await pumpEventQueue();
+    expect(AppScanner.iconBytes, 0);
+
+    await answer('a', 120);
+    expect(AppScanner.iconBytes, 120);
+    expect(AppScanner.iconCount, 1);
+  });
+
+  test('a failed fetch does not drop a newer one', () async {
+    AppScanner.loadIcon('a');
+    final stale = fetches['a']!;
+    AppScanner.releaseIcon('a');
+    final fresh = AppScanner.loadIcon('a');
+
+    stale.complete(null);
+    await pumpEventQueue();
+    expect(identical(AppScanner.loadIcon('a'), fresh), isTrue);
+    expect(fetchCount, 2);
+  });
+}
@@ -0,0 +1,39 @@
+import 'package:flutter/material.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:spider/app_data.dart';
+import 'package:spider/app_search.dart';
+
+void main() {
+  late AppSearchIndex index;
+
+  setUp(() {
+    index = AppSearchIndex()
+      ..addAll([
+        for (final name in ['Chrome', 'Gmail', 'Instagram', 'Maps', 'Telegram', 'YouTube'])
+          SocialApp(
+            name: name,
+            icon: null,
+            color: Colors.grey,
+            packageName: 'com.example.${name.toLowerCase()}',
+          ),
+      ]);
+  });
+
+  List<String> names(String query) => index.search(query).apps.map((app) => app.name).toList();
+
+  test('direct matches rank prefixes first', () {
+    expect(names('gram'), ['Instagram', 'Telegram']);
+    expect(names('tele'), ['Telegram']);
+  });
+
+  test('short queries tolerate one typo', () {
+    expect(names('yiu'), contains('YouTube'));
+    expect(names('mxps'), contains('Maps'));
+  });
+
+  test('long queries tolerate two typos', () {
+    expect(names('instgrem'), contains('Instagram'));
+    expect(names('instgrem'), isNot(contains('Chrome')));
+  });
+}
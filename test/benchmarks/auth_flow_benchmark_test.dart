@@ -0,0 +1,179 @@
+@Tags(['benchmark'])
+library;
+
+import 'dart:io';
+
+import 'package:flutter/material.dart';
+import 'package:flutter/services.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+import 'package:spider/api_client.dart';
+import 'package:spider/app_store.dart';
+import 'package:spider/fake_backend.dart';
+import 'package:spider/login_screen.dart';
+import 'package:spider/my_account_screen.dart';
+import 'package:spider/notification_store.dart';
+import 'package:spider/profile_repository.dart';
+import 'package:spider/usage_stats.dart';
+
+import 'harness.dart';
+
+/// Login -> home -> account against [FakeBackend] on degraded networks.
+///
+/// Times are on the test clock, so they are repeatable: they count simulated
+/// network time and frames, not host disk or CPU. Each screen counts as
+/// shown once it displays the user's name. The budgets fail the test when a
+/// change adds requests to the flow or makes one request wait on another.
+void main() {
+  const frame = Duration(milliseconds: 16);
+  const transition = Duration(milliseconds: 300);
+
+  // Room for route transitions and the frames around each response.
+  const slack = Duration(milliseconds: 600);
+
+  late Directory root;
+  late FakeBackend backend;
+  final results = <BenchmarkResult>[];
+
+  setUp(() {
+    root = Directory.systemTemp.createTempSync('spider_auth_flow');
+    Directory('${root.path}/icons').createSync();
+    SharedPreferences.setMockInitialValues({});
+
+    backend = FakeBackend(seed: 1)
+      ..addUser(fullName: 'Ada Lovelace', email: 'ada@example.com', password: 'analytical');
+    ApiClient.configure(client: backend, baseUrl: 'http://fake');
+
+    SelectedAppsStore.debugReset(root: root);
+    NotificationStore.debugReset(root: root);
+    UsageStats.debugReset(root: root);
+    ProfileRepository.debugReset(root: root);
+
+    // Native channels the screens talk to; they just have to answer.
+    final messenger = TestDefaultBinaryMessengerBinding.instance.defaultBinaryMessenger;
+    for (final name in [
+      'app_hider',
+      'app_hider/events',
+      'spider/packages',
+      'spider/device',
+      'spider/device/power',
+    ]) {
+      messenger.setMockMethodCallHandler(MethodChannel(name), (call) async => null);
+    }
+    messenger.setMockMethodCallHandler(
+      const MethodChannel('plugins.flutter.io/path_provider'),
+      (call) async => root.path,
+    );
+  });
+
+  tearDown(() {
+    ProfileRepository.debugReset();
+    SelectedAppsStore.debugReset();
+    NotificationStore.debugReset();
+    UsageStats.debugReset();
+    ApiClient.configure();
+    root.deleteSync(recursive: true);
+  });
+
+  tearDownAll(() => writeResults('auth_flow', results));
+
+  // Pumps frames until [finder] matches and returns the test-clock time it
+  // took. Stores read and write real files, which finish outside the test
+  // clock, so each frame also yields to real time briefly.
+  Future<Duration> timeUntil(WidgetTester tester, Finder finder) async {
+    var elapsed = Duration.zero;
+    while (finder.evaluate().isEmpty) {
+      if (elapsed > const Duration(seconds: 30)) fail('Gave up waiting for $finder');
+      await tester.runAsync(() => Future<void>.delayed(const Duration(milliseconds: 1)));
+      await tester.pump(frame);
+      elapsed += frame;
+    }
+    return elapsed;
+  }
+
+  Future<void> logIn(WidgetTester tester) async {
+    tester.view.physicalSize = const Size(1080, 2400);
+    tester.view.devicePixelRatio = 3;
+    addTearDown(tester.view.reset);
+
+    await tester.pumpWidget(const MaterialApp(home: LoginScreen()));
+    await timeUntil(tester, find.text('Log In'));
+    await tester.enterText(find.widgetWithText(TextFormField, 'Email'), 'ada@example.com');
+    await tester.enterText(find.widgetWithText(TextFormField, 'Password'), 'analytical');
+    await tester.ensureVisible(find.text('Log In'));
+    backend.clearLog();
+    await tester.tap(find.text('Log In'));
+  }
+
+  // Lets the flushes the screens scheduled run before the next test.
+  Future<void> finish(WidgetTester tester) async {
+    await tester.pumpWidget(const SizedBox());
+    await tester.pump(const Duration(seconds: 1));
+    await tester.runAsync(() => Future<void>.delayed(const Duration(milliseconds: 50)));
+  }
+
+  for (final preset in ['ideal', 'wifi', 'slow3g']) {
+    testWidgets('login, home and account on $preset', (tester) async {
+      final network = NetworkConditions.presets[preset]!;
+      final roundTrip = network.latency + network.jitter;
+      backend.conditions = network;
+
+      await logIn(tester);
+      final toHome = await timeUntil(tester, find.text('Welcome, Ada Lovelace!'));
+      final homeRequests = backend.requests.length;
+
+      // POST /login, then one GET of the profile: two requests, two round trips.
+      expect(backend.count('POST', '/login'), 1, reason: '${backend.requests}');
+      expect(homeRequests, 2, reason: '${backend.requests}');
+      expect(toHome, lessThan(roundTrip * 2 + slack));
+
+      await tester.pump(transition);
+      await tester.tap(find.byIcon(Icons.settings));
+      final toSettings = await timeUntil(tester, find.text('My Account'));
+      // Tap once the page has finished coming in, as a person would.
+      await tester.pump(transition);
+      await tester.tap(find.text('My Account'));
+      final toAccount = toSettings +
+          transition +
+          await timeUntil(
+            tester,
+            find.descendant(of: find.byType(MyAccountScreen), matching: find.text('Ada Lovelace')),
+          );
+      final accountRequests = backend.requests.length - homeRequests;
+
+      // The profile fetched for home is still fresh: no round trip at all.
+      expect(accountRequests, 0, reason: '${backend.requests}');
+      expect(toAccount, lessThan(slack * 2));
+
+      results
+        ..add(BenchmarkResult('login -> home, $preset', [toHome.inMicroseconds], extra: {
+          'requests': homeRequests,
+          'maxInFlight': backend.maxInFlight,
+        }))
+        ..add(BenchmarkResult('home -> account, $preset', [toAccount.inMicroseconds], extra: {
+          'requests': accountRequests,
+        }));
+
+      await finish(tester);
+    });
+  }
+
+  testWidgets('a failing server costs one request and shows the error', (tester) async {
+    backend.conditions = const NetworkConditions(
+      latency: Duration(milliseconds: 150),
+      errorRate: 1,
+    );
+
+    await logIn(tester);
+    final toError = await timeUntil(tester, find.text('Login Failed'));
+
+    expect(backend.requests.length, 1, reason: '${backend.requests}');
+    expect(toError, lessThan(const Duration(milliseconds: 150) + slack));
+    results.add(BenchmarkResult('login error, 503', [toError.inMicroseconds], extra: {
+      'requests': backend.requests.length,
+    }));
+
+    await finish(tester);
+  });
+}
@@ -0,0 +1,121 @@
+import 'dart:convert';
+import 'dart:io';
+import 'dart:math';
+import 'dart:typed_data';
+
+import 'package:spider/app_data.dart';
+
+/// Timing summary of one benchmark, in microseconds.
+class BenchmarkResult {
+  final String name;
+  final int iterations;
+  final List<int> samples;
+
+  /// Other numbers reported with the timings, e.g. request counts.
+  final Map<String, Object> extra;
+
+  BenchmarkResult(this.name, this.samples, {this.extra = const {}})
+      : iterations = samples.length;
+
+  double get mean => samples.reduce((a, b) => a + b) / samples.length;
+
+  int percentile(double p) {
+    final sorted = List.of(samples)..sort();
+    return sorted[((sorted.length - 1) * p).round()];
+  }
+
+  Map<String, Object> toJson() => {
+        'name': name,
+        'iterations': iterations,
+        'meanUs': double.parse(mean.toStringAsFixed(2)),
+        'p50Us': percentile(0.5),
+        'p90Us': percentile(0.9),
+        'p99Us': percentile(0.99),
+        'maxUs': percentile(1),
+        ...extra,
+      };
+}
+
+/// Runs [body] [warmup] times untimed, then [iterations] times timed.
+Future<BenchmarkResult> measure(
+  String name,
+  Future<void> Function() body, {
+  int warmup = 5,
+  int iterations = 50,
+}) async {
+  for (var i = 0; i < warmup; i++) {
+    await body();
+  }
+  final samples = <int>[];
+  final clock = Stopwatch();
+  for (var i = 0; i < iterations; i++) {
+    clock
+      ..reset()
+      ..start();
+    await body();
+    clock.stop();
+    samples.add(clock.elapsedMicroseconds);
+  }
+  return BenchmarkResult(name, samples);
+}
+
+/// Synchronous variant of [measure] for CPU-only work.
+BenchmarkResult measureSync(
+  String name,
+  void Function() body, {
+  int warmup = 5,
+  int iterations = 50,
+}) {
+  for (var i = 0; i < warmup; i++) {
+    body();
+  }
+  final samples = <int>[];
+  final clock = Stopwatch();
+  for (var i = 0; i < iterations; i++) {
+    clock
+      ..reset()
+      ..start();
+    body();
+    clock.stop();
+    samples.add(clock.elapsedMicroseconds);
+  }
+  return BenchmarkResult(name, samples);
+}
+
+/// Writes [results] to `build/benchmarks/<suite>.json`.
+///
+/// Set `BENCHMARK_OUT` to write somewhere else, e.g. a CI artifacts folder.
+void writeResults(String suite, List<BenchmarkResult> results) {
+  final dir = Directory(Platform.environment['BENCHMARK_OUT'] ?? 'build/benchmarks');
+  dir.createSync(recursive: true);
+  File('${dir.path}/$suite.json').writeAsStringSync(
+    const JsonEncoder.withIndent('  ').convert({
+      'suite': suite,
+      'timestamp': DateTime.now().toUtc().toIso8601String(),
+      'results': results.map((r) => r.toJson()).toList(),
+    }),
+  );
+}
+
+const List<String> _words = [
+  'photo', 'chat', 'music', 'map', 'bank', 'mail', 'news', 'video', 'note',
+  'cloud', 'fit', 'shop', 'game', 'weather', 'ride', 'food', 'scan', 'book',
+];
+
+/// [count] apps with distinct, realistic-looking names and package names.
+List<SocialApp> syntheticApps(int count, {int iconBytes = 0, int seed = 7}) {
+  final random = Random(seed);
+  return List.generate(count, (i) {
+    final first = _words[random.nextInt(_words.length)];
+    final second = _words[random.nextInt(_words.length)];
+    final name = '${first[0].toUpperCase()}${first.substring(1)} $second $i';
+    return SocialApp(
+      name: name,
+      packageName: 'com.bench.$first$second$i',
+      color: colorFromName(name),
+      icon: iconBytes == 0
+          ? null
+          : Uint8List.fromList(List.generate(iconBytes, (_) => random.nextInt(256))),
+    );
+  });
+}
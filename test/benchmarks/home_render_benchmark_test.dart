@@ -0,0 +1,64 @@
+@Tags(['benchmark'])
+library;
+
+import 'dart:io';
+
+import 'package:flutter/material.dart';
+import 'package:flutter/services.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:spider/app_data.dart';
+import 'package:spider/app_store.dart';
+import 'package:spider/home_screen.dart';
+import 'package:spider/selection_repository.dart';
+
+import 'harness.dart';
+
+/// Host-side frame cost of HomeScreen: build, layout and paint per pump.
+///
+/// Raster time is not visible here; integration_test/home_frames_test.dart
+/// measures real frames on a device.
+void main() {
+  late Directory root;
+
+  setUp(() async {
+    root = Directory.systemTemp.createTempSync('spider_home_bench');
+    Directory('${root.path}/icons').createSync();
+    SelectedAppsStore.debugReset(root: root);
+
+    // Native channels the home screen talks to; they just have to answer.
+    final messenger = TestDefaultBinaryMessengerBinding.instance.defaultBinaryMessenger;
+    for (final name in ['app_hider', 'app_hider/events', 'spider/packages']) {
+      messenger.setMockMethodCallHandler(MethodChannel(name), (call) async => null);
+    }
+  });
+
+  tearDown(() {
+    SelectedAppsStore.debugReset();
+    root.deleteSync(recursive: true);
+  });
+
+  testWidgets('home screen frames', (tester) async {
+    final results = <BenchmarkResult>[];
+
+    for (final particles in [false, true]) {
+      for (final count in [0, 1, 4, 8]) {
+        SelectionRepository.replace(allSocialApps.take(count).toList());
+        await tester.runAsync(SelectedAppsStore.flush);
+
+        await tester.pumpWidget(MaterialApp(home: HomeScreen(showParticles: particles)));
+        await tester.pump();
+
+        results.add(await measure(
+          'home $count apps, particles ${particles ? 'on' : 'off'}',
+          () => tester.pump(const Duration(milliseconds: 16)),
+          iterations: 120,
+        ));
+
+        await tester.pumpWidget(const SizedBox());
+      }
+    }
+
+    writeResults('home_render', results);
+  });
+}
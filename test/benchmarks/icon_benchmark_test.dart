@@ -0,0 +1,82 @@
+@Tags(['benchmark'])
+library;
+
+import 'dart:typed_data';
+import 'dart:ui' as ui;
+
+import 'package:flutter/material.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:spider/app_data.dart';
+import 'package:spider/icon_cache.dart';
+
+import 'harness.dart';
+
+Future<Uint8List> _png(int size, Color color) async {
+  final recorder = ui.PictureRecorder();
+  Canvas(recorder).drawCircle(
+    Offset(size / 2, size / 2),
+    size / 2,
+    Paint()..color = color,
+  );
+  final image = await recorder.endRecording().toImage(size, size);
+  final data = await image.toByteData(format: ui.ImageByteFormat.png);
+  image.dispose();
+  return data!.buffer.asUint8List();
+}
+
+void main() {
+  testWidgets('icon decoding and getIconWidget', (tester) async {
+    final results = <BenchmarkResult>[];
+
+    // Launcher icons usually arrive as 192px PNGs.
+    final apps = await tester.runAsync(() async {
+      return [
+        for (var i = 0; i < 8; i++)
+          SocialApp(
+            name: 'App $i',
+            packageName: 'com.bench.icon$i',
+            color: Colors.primaries[i],
+            icon: await _png(192, Colors.primaries[i]),
+          ),
+      ];
+    });
+
+    await tester.runAsync(() async {
+      results.add(await measure('decode 8 icons at 84px (cold)', () async {
+        IconCache.clear();
+        await Future.wait(
+          apps!.map((app) => IconCache.resolve(app.packageName, app.icon, 84)),
+        ).then((images) {
+          for (final image in images) {
+            image?.dispose();
+          }
+        });
+      }, iterations: 20));
+
+      results.add(measureSync('peek 8 icons (warm)', () {
+        for (final app in apps!) {
+          IconCache.peek(app.packageName, 84)?.dispose();
+        }
+      }));
+    });
+
+    Widget grid() => MaterialApp(
+          home: Wrap(
+            children: [for (final app in apps!) app.getIconWidget(size: 28)],
+          ),
+        );
+
+    // Icons are cached at this point, so this is the per-build byte handling.
+    await tester.pumpWidget(grid());
+    await tester.runAsync(() => Future<void>.delayed(const Duration(milliseconds: 50)));
+    results.add(await measure('getIconWidget x8 rebuild', () async {
+      await tester.pumpWidget(const SizedBox());
+      await tester.pumpWidget(grid());
+    }, iterations: 30));
+
+    await tester.pumpWidget(const SizedBox());
+    IconCache.clear();
+    writeResults('icons', results);
+  });
+}
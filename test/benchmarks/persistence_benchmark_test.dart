@@ -0,0 +1,67 @@
+@Tags(['benchmark'])
+library;
+
+import 'dart:convert';
+import 'dart:io';
+
+import 'package:flutter/painting.dart' show Color;
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:spider/app_data.dart';
+import 'package:spider/app_store.dart';
+
+import 'harness.dart';
+
+void main() {
+  late Directory root;
+
+  setUp(() async {
+    root = await Directory.systemTemp.createTemp('spider_bench');
+    await Directory('${root.path}/icons').create();
+    SelectedAppsStore.debugReset(root: root);
+  });
+
+  tearDown(() async {
+    SelectedAppsStore.debugReset();
+    await root.delete(recursive: true);
+  });
+
+  test('selected apps persistence', () async {
+    final apps = syntheticApps(8, iconBytes: 6 * 1024);
+    final results = <BenchmarkResult>[];
+
+    results.add(await measure('store save 8 apps', () => SelectedAppsStore.save(apps)));
+
+    results.add(await measure('store load 8 apps (cold)', () async {
+      SelectedAppsStore.debugReset(root: root);
+      final loaded = await SelectedAppsStore.load();
+      expect(loaded, hasLength(8));
+    }));
+
+    // The base64 JSON list formerly kept under `selected_apps_data`.
+    List<String> encodeLegacy() => apps
+        .map((app) => jsonEncode({
+              'name': app.name,
+              'packageName': app.packageName,
+              'icon': base64Encode(app.icon),
+              'color': app.color.value,
+            }))
+        .toList();
+    final legacy = encodeLegacy();
+
+    results.add(measureSync('legacy json encode 8 apps', encodeLegacy));
+    results.add(measureSync('legacy json decode 8 apps', () {
+      for (final entry in legacy) {
+        final data = jsonDecode(entry);
+        SocialApp(
+          name: data['name'],
+          packageName: data['packageName'],
+          icon: base64Decode(data['icon']),
+          color: Color(data['color']),
+        );
+      }
+    }));
+
+    writeResults('persistence', results);
+  });
+}
@@ -0,0 +1,47 @@
+@Tags(['benchmark'])
+library;
+
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:spider/app_data.dart';
+import 'package:spider/app_search.dart';
+
+import 'harness.dart';
+
+void main() {
+  test('app name search and colors', () {
+    final results = <BenchmarkResult>[];
+
+    final names = syntheticApps(1000).map((app) => app.name).toList();
+    results.add(measureSync('colorFromName x1000', () {
+      for (final name in names) {
+        colorFromName(name);
+      }
+    }));
+
+    for (final size in [1000, 5000]) {
+      final apps = syntheticApps(size);
+      late AppSearchIndex index;
+
+      results.add(measureSync('index build $size', () {
+        index = AppSearchIndex()..addAll(apps);
+      }, iterations: 10));
+
+      results.add(measureSync('search "ph" $size', () => index.search('ph')));
+      results.add(measureSync('search "photo chat" $size', () => index.search('photo chat')));
+      results.add(measureSync('search typo "phtoo" $size', () => index.search('phtoo')));
+
+      // Typing one character at a time, each query reusing the last result.
+      results.add(measureSync('incremental "weather" $size', () {
+        AppSearchResult? last;
+        for (var i = 1; i <= 'weather'.length; i++) {
+          last = index.search('weather'.substring(0, i), last);
+        }
+      }));
+
+      expect(index.search('photo').apps, isNotEmpty);
+    }
+
+    writeResults('search', results);
+  });
+}
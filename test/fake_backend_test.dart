@@ -0,0 +1,119 @@
+import 'dart:convert';
+
+import 'package:flutter_test/flutter_test.dart';
+import 'package:http/http.dart' as http;
+
+import 'package:spider/api_client.dart';
+import 'package:spider/fake_backend.dart';
+
+void main() {
+  late FakeBackend backend;
+  late ApiClient client;
+
+  setUp(() {
+    backend = FakeBackend();
+    client = ApiClient(client: backend, baseUrl: 'http://fake');
+  });
+
+  tearDown(() => client.close());
+
+  Map<String, dynamic> json(http.Response response) => jsonDecode(response.body);
+
+  test('account lifecycle: sign up, log in, edit, delete', () async {
+    final signUp = await client.post('/users', {
+      'fullName': 'Ada',
+      'email': 'ada@example.com',
+      'password': 'secret',
+    });
+    expect(signUp.statusCode, 201);
+    final id = json(signUp)['_id'];
+
+    expect((await client.post('/users', {
+      'fullName': 'Ada again',
+      'email': 'ADA@example.com',
+      'password': 'x',
+    })).statusCode, 409);
+
+    final login = await client.post('/login', {'email': 'ada@example.com', 'password': 'secret'});
+    expect(login.statusCode, 200);
+    expect(json(login)['user']['_id'], id);
+    expect((await client.post('/login', {'email': 'ada@example.com', 'password': 'nope'})).statusCode,
+        401);
+
+    backend.addUser(fullName: 'Bob', email: 'bob@example.com', password: 'pw');
+    expect((await client.put('/users/$id', {'email': 'bob@example.com'})).statusCode, 409);
+    expect((await client.put('/users/$id', {'fullName': 'Ada L'})).statusCode, 200);
+    expect(json(await client.get('/users/$id'))['fullName'], 'Ada L');
+
+    expect((await client.delete('/users/$id')).statusCode, 200);
+    expect((await client.get('/users/$id', forceRefresh: true)).statusCode, 404);
+  });
+
+  test('password reset needs a verified code', () async {
+    backend.addUser(fullName: 'Ada', email: 'ada@example.com', password: 'old');
+
+    expect((await client.post('/reset-password', {
+      'email': 'ada@example.com',
+      'newPassword': 'new',
+    })).statusCode, 400);
+
+    expect((await client.post('/send-otp', {'email': 'ada@example.com'})).statusCode, 200);
+    expect((await client.post('/verify-otp', {'email': 'ada@example.com', 'otp': '000000'})).statusCode,
+        400);
+    expect((await client.post('/verify-otp', {'email': 'ada@example.com', 'otp': backend.otp})).statusCode,
+        200);
+    expect((await client.post('/reset-password', {
+      'email': 'ada@example.com',
+      'newPassword': 'new',
+    })).statusCode, 200);
+
+    expect((await client.post('/login', {'email': 'ada@example.com', 'password': 'new'})).statusCode, 200);
+  });
+
+  test('unchanged profiles revalidate with a 304', () async {
+    final id = backend.addUser(fullName: 'Ada', email: 'ada@example.com', password: 'pw');
+
+    await client.get('/users/$id');
+    final again = await client.get('/users/$id', forceRefresh: true);
+
+    expect(json(again)['fullName'], 'Ada');
+    expect(backend.requests.map((r) => r.statusCode), [200, 304]);
+  });
+
+  test('latency and throughput slow requests down', () async {
+    final id = backend.addUser(fullName: 'A' * 10000, email: 'ada@example.com', password: 'pw');
+    backend.conditions = const NetworkConditions(
+      latency: Duration(milliseconds: 50),
+      bytesPerSecond: 100 << 10,
+    );
+
+    final clock = Stopwatch()..start();
+    await client.get('/users/$id');
+    // 50 ms round trip plus ~10 KB at 100 KB/s.
+    expect(clock.elapsedMilliseconds, greaterThanOrEqualTo(140));
+  });
+
+  test('injected errors and dropped connections', () async {
+    backend.conditions = const NetworkConditions(errorRate: 1);
+    expect((await client.post('/login', {})).statusCode, 503);
+
+    backend.conditions = const NetworkConditions(dropRate: 1);
+    await expectLater(client.post('/login', {}), throwsA(isA<http.ClientException>()));
+    expect(backend.requests.last.statusCode, 0);
+  });
+
+  test('overlapping requests are counted', () async {
+    final a = backend.addUser(fullName: 'A', email: 'a@example.com', password: 'pw');
+    final b = backend.addUser(fullName: 'B', email: 'b@example.com', password: 'pw');
+    backend.conditions = const NetworkConditions(latency: Duration(milliseconds: 20));
+
+    await Future.wait([client.get('/users/$a'), client.get('/users/$b')]);
+    expect(backend.maxInFlight, 2);
+
+    backend.clearLog();
+    await client.get('/users/$a', forceRefresh: true);
+    await client.get('/users/$b', forceRefresh: true);
+    expect(backend.maxInFlight, 1);
+    expect(backend.count('GET', RegExp(r'^/users/')), 2);
+  });
+}
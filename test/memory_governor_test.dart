@@ -0,0 +1,53 @@
+import 'dart:typed_data';
+
+import 'package:flutter/services.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:spider/app_scanner.dart';
+import 'package:spider/device_profile.dart';
+import 'package:spider/icon_cache.dart';
+import 'package:spider/memory_governor.dart';
+
+void main() {
+  TestWidgetsFlutterBinding.ensureInitialized();
+
+  setUp(() async {
+    // The device profile channels just have to answer.
+    final messenger = TestDefaultBinaryMessengerBinding.instance.defaultBinaryMessenger;
+    for (final name in ['spider/device', 'spider/device/power']) {
+      messenger.setMockMethodCallHandler(MethodChannel(name), (call) async => null);
+    }
+    MemoryGovernor.ensureInitialized();
+    await DeviceProfile.load();
+    await pumpEventQueue();
+    AppScanner.debugReset(fetchIcon: (packageName) async => Uint8List(64 * 1024));
+  });
+
+  tearDown(() {
+    AppScanner.debugReset();
+    IconCache.clear();
+  });
+
+  test('trimToFloor drops icon bytes and reports the trim', () async {
+    await Future.wait(['a', 'b', 'c'].map(AppScanner.loadIcon));
+    expect(AppScanner.iconBytes, 3 * 64 * 1024);
+    final trims = MemoryGovernor.trims;
+
+    MemoryGovernor.trimToFloor();
+
+    expect(AppScanner.iconBytes, 0);
+    expect(AppScanner.iconCount, 0);
+    expect(MemoryGovernor.trims, trims + 1);
+    expect(MemoryGovernor.usage()['iconBytes'], containsPair('bytes', 0));
+  });
+
+  test('every trimmable pool ends at or below its floor', () async {
+    await Future.wait(['a', 'b'].map(AppScanner.loadIcon));
+
+    MemoryGovernor.trimToFloor();
+
+    for (final pool in MemoryGovernor.pools.where((pool) => pool.trimTo != null)) {
+      expect(pool.bytes(), lessThanOrEqualTo(pool.floor), reason: pool.name);
+    }
+  });
+}
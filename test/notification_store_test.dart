@@ -0,0 +1,72 @@
+import 'dart:io';
+
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:spider/notification_store.dart';
+
+void main() {
+  late Directory root;
+
+  AppNotification note(int i, {bool read = false}) => AppNotification(
+        id: 'n$i',
+        text: 'Notification $i',
+        createdAt: DateTime(2025, 1, 1).add(Duration(minutes: i)),
+        read: read,
+      );
+
+  setUp(() async {
+    root = await Directory.systemTemp.createTemp('notifications_test');
+    // An empty log skips the first-run tips.
+    File('${root.path}/notifications.log').writeAsStringSync('');
+    NotificationStore.debugReset(root: root);
+  });
+
+  tearDown(() async {
+    NotificationStore.debugReset();
+    await root.delete(recursive: true);
+  });
+
+  test('pages walk the feed newest first without gaps', () async {
+    for (var i = 0; i < 45; i++) {
+      await NotificationStore.add(note(i));
+    }
+
+    final seen = <String>[];
+    String? cursor;
+    do {
+      final page = await NotificationStore.page(cursor: cursor);
+      seen.addAll(page.items.map((n) => n.id));
+      cursor = page.next;
+    } while (cursor != null);
+
+    expect(seen, [for (var i = 44; i >= 0; i--) 'n$i']);
+  });
+
+  test('unread count follows adds, reads and removals', () async {
+    await NotificationStore.add(note(1));
+    await NotificationStore.add(note(2));
+    await NotificationStore.add(note(3, read: true));
+    expect(NotificationStore.unreadCount.value, 2);
+
+    await NotificationStore.markRead('n1');
+    await NotificationStore.remove('n2');
+    await NotificationStore.remove('n3');
+    expect(NotificationStore.unreadCount.value, 0);
+  });
+
+  test('the log replays to the same feed', () async {
+    await NotificationStore.add(note(1));
+    await NotificationStore.add(note(2));
+    await NotificationStore.add(note(3));
+    await NotificationStore.markRead('n3');
+    await NotificationStore.remove('n1');
+    await NotificationStore.flush();
+
+    NotificationStore.debugReset(root: root);
+    final page = await NotificationStore.page();
+
+    expect(page.items.map((n) => n.id), ['n3', 'n2']);
+    expect(page.items.first.read, isTrue);
+    expect(NotificationStore.unreadCount.value, 1);
+  });
+}
@@ -0,0 +1,153 @@
+import 'dart:convert';
+import 'dart:io';
+
+import 'package:fake_async/fake_async.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:http/http.dart' as http;
+import 'package:http/testing.dart';
+
+import 'package:spider/api_client.dart';
+import 'package:spider/profile_repository.dart';
+
+void main() {
+  TestWidgetsFlutterBinding.ensureInitialized();
+
+  late HttpServer server;
+  late ApiClient client;
+  late Directory root;
+  late Map<String, String> user;
+  late List<int> putStatuses;
+  late List<Map<String, dynamic>> puts;
+
+  setUp(() async {
+    user = {'fullName': 'Ada', 'email': 'ada@example.com'};
+    putStatuses = [];
+    puts = [];
+    root = await Directory.systemTemp.createTemp('profile_test');
+    server = await HttpServer.bind(InternetAddress.loopbackIPv4, 0);
+    server.listen((request) async {
+      if (request.method == 'PUT') {
+        final body = jsonDecode(await utf8.decodeStream(request)) as Map<String, dynamic>;
+        puts.add(body);
+        final status = putStatuses.isEmpty ? 200 : putStatuses.removeAt(0);
+        request.response.statusCode = status;
+        if (status == 200) {
+          user = {...user, ...body.cast<String, String>()};
+        } else if (status < 500) {
+          request.response.write(jsonEncode({'message': 'Email already in use'}));
+        }
+      } else {
+        request.response.write(jsonEncode(user));
+      }
+      await request.response.close();
+    });
+    client = ApiClient(baseUrl: 'http://${server.address.host}:${server.port}');
+    ProfileRepository.retryBase = const Duration(milliseconds: 20);
+    ProfileRepository.debugReset(root: root, client: client);
+  });
+
+  tearDown(() async {
+    ProfileRepository.debugReset();
+    client.close();
+    await server.close(force: true);
+    await root.delete(recursive: true);
+  });
+
+  test('cached profile is served before the network answers', () async {
+    File('${root.path}/profile.json').writeAsStringSync(jsonEncode({
+      'profile': {'id': '1', 'fullName': 'Cached', 'email': 'c@example.com'},
+      'pending': {},
+    }));
+
+    final cached = await ProfileRepository.open('1');
+    expect(cached?.fullName, 'Cached');
+
+    await Future<void>.delayed(const Duration(milliseconds: 100));
+    expect(ProfileRepository.profile.value?.fullName, 'Ada');
+  });
+
+  test('edits apply at once and are sent in the background', () async {
+    await ProfileRepository.refresh('1');
+    await ProfileRepository.edit('1', {'fullName': 'Grace'});
+
+    expect(ProfileRepository.profile.value?.fullName, 'Grace');
+    await ProfileRepository.sync();
+    expect(puts, [
+      {'fullName': 'Grace'}
+    ]);
+    expect(ProfileRepository.hasPendingEdits.value, isFalse);
+  });
+
+  // Runs [clock]'s due timers and microtasks until [done], yielding real
+  // time in between so the repository's file writes can land.
+  Future<void> settle(FakeAsync clock, bool Function() done) async {
+    for (var i = 0; i < 1000 && !done(); i++) {
+      clock.elapse(Duration.zero);
+      await Future<void>.delayed(const Duration(milliseconds: 1));
+    }
+    expect(done(), isTrue, reason: 'gave up waiting for the repository');
+  }
+
+  test('server errors keep the edit queued and retry with backoff', () async {
+    final statuses = [503, 503];
+    var putCount = 0;
+    var fullName = 'Ada';
+    final mockClient = ApiClient(
+      baseUrl: 'http://fake',
+      client: MockClient((request) async {
+        if (request.method != 'PUT') {
+          return http.Response(jsonEncode({'fullName': fullName, 'email': 'ada@example.com'}), 200);
+        }
+        putCount++;
+        final status = statuses.isEmpty ? 200 : statuses.removeAt(0);
+        if (status == 200) {
+          fullName = (jsonDecode(request.body) as Map<String, dynamic>)['fullName'] as String;
+        }
+        return http.Response('{}', status);
+      }),
+    );
+    addTearDown(mockClient.close);
+    ProfileRepository.retryBase = const Duration(seconds: 2);
+    ProfileRepository.debugReset(root: root, client: mockClient);
+
+    final clock = FakeAsync();
+    var sent = false;
+    clock.run((_) {
+      ProfileRepository.edit('1', {'fullName': 'Grace'})
+          .then((_) => ProfileRepository.sync())
+          .then((_) => sent = true);
+    });
+    await settle(clock, () => sent);
+    expect(putCount, 1);
+    expect(ProfileRepository.hasPendingEdits.value, isTrue);
+
+    // 2 s after the first failure, then 4 s after the second.
+    clock.elapse(const Duration(milliseconds: 1999));
+    expect(putCount, 1);
+    clock.elapse(const Duration(milliseconds: 1));
+    await settle(clock, () => putCount == 2);
+    expect(ProfileRepository.hasPendingEdits.value, isTrue);
+
+    clock.elapse(const Duration(milliseconds: 3999));
+    expect(putCount, 2);
+    clock.elapse(const Duration(milliseconds: 1));
+    await settle(clock, () => putCount == 3);
+
+    var synced = false;
+    clock.run((_) => ProfileRepository.sync().then((_) => synced = true));
+    await settle(clock, () => synced);
+    expect(ProfileRepository.hasPendingEdits.value, isFalse);
+    expect(ProfileRepository.profile.value?.fullName, 'Grace');
+  });
+
+  test('rejected edits are dropped and the server copy restored', () async {
+    putStatuses = [409];
+    await ProfileRepository.refresh('1');
+    await ProfileRepository.edit('1', {'email': 'taken@example.com'});
+    await ProfileRepository.sync();
+
+    expect(ProfileRepository.syncError.value, 'Email already in use');
+    expect(ProfileRepository.hasPendingEdits.value, isFalse);
+    expect(ProfileRepository.profile.value?.email, 'ada@example.com');
+  });
+}
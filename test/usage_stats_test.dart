@@ -0,0 +1,51 @@
+import 'dart:io';
+
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:spider/usage_stats.dart';
+
+void main() {
+  late Directory root;
+  final morning = DateTime(2025, 3, 10, 8, 30);
+  final evening = DateTime(2025, 3, 10, 21, 0);
+
+  setUp(() async {
+    root = await Directory.systemTemp.createTemp('usage_test');
+    UsageStats.debugReset(root: root);
+  });
+
+  tearDown(() async {
+    UsageStats.debugReset();
+    await root.delete(recursive: true);
+  });
+
+  test('ranks by time of day, keeping order for unused apps', () {
+    for (var day = 1; day <= 5; day++) {
+      UsageStats.record('news', at: morning.subtract(Duration(days: day)));
+      UsageStats.record('games', at: evening.subtract(Duration(days: day)));
+    }
+
+    const apps = ['mail', 'games', 'news', 'maps'];
+    expect(UsageStats.rank(apps, now: morning), ['news', 'games', 'mail', 'maps']);
+    expect(UsageStats.rank(apps, now: evening), ['games', 'news', 'mail', 'maps']);
+  });
+
+  test('recent launches outweigh old ones', () {
+    for (var i = 0; i < 3; i++) {
+      UsageStats.record('old', at: morning.subtract(const Duration(days: 90)));
+    }
+    UsageStats.record('new', at: morning.subtract(const Duration(days: 1)));
+
+    expect(UsageStats.rank(['old', 'new'], now: morning), ['new', 'old']);
+  });
+
+  test('the ring keeps only the newest launches', () {
+    UsageStats.record('dropped', at: morning.subtract(const Duration(days: 2)));
+    for (var i = 0; i < UsageStats.capacity; i++) {
+      UsageStats.record('kept', at: morning.subtract(const Duration(days: 1)));
+    }
+
+    expect(UsageStats.length, UsageStats.capacity);
+    expect(UsageStats.score('dropped', now: morning), 0);
+  });
+}
@@ -0,0 +1,21 @@
+import 'dart:convert';
+import 'dart:io';
+
+import 'package:integration_test/integration_test_driver.dart';
+
+/// Writes each frame summary from integration_test/home_frames_test.dart to
+/// build/benchmarks/<name>.json.
+Future<void> main() {
+  return integrationDriver(
+    responseDataCallback: (data) async {
+      if (data == null) return;
+      final dir = Directory('build/benchmarks');
+      await dir.create(recursive: true);
+      for (final entry in data.entries) {
+        await File('${dir.path}/${entry.key}.json').writeAsString(
+          const JsonEncoder.withIndent('  ').convert(entry.value),
+        );
+      }
+    },
+  );
+}
@@ -0,0 +1,254 @@
+// Asset pipeline for the bundled images.
+//
+//   dart run tool/assets.dart            regenerate lib/assets.dart
+//   dart run tool/assets.dart --check    fail if lib/assets.dart is stale or
+//                                        the bundle has duplicate files
+//   dart run tool/assets.dart --webp     also re-encode opaque images with
+//                                        `cwebp` (must be on PATH) and keep
+//                                        the result when it is smaller
+//
+// The asset folders are read from the `flutter: assets:` list in
+// pubspec.yaml. Byte-identical files are reported and fail the run, so each
+// image is bundled and cached once. Resolution variants follow Flutter's
+// `2.0x/` and `3.0x/` sub-folder convention and are listed in the manifest.
+// The manifest records every image's pixel size, which [AppAsset] uses to
+// decode it no larger than it is drawn.
+
+import 'dart:io';
+import 'dart:typed_data';
+
+const String _output = 'lib/assets.dart';
+const List<String> _imageExtensions = ['.png', '.jpg', '.jpeg', '.webp'];
+const List<String> _variantFolders = ['2.0x', '3.0x'];
+
+Future<void> main(List<String> args) async {
+  final check = args.contains('--check');
+  final webp = args.contains('--webp');
+
+  final folders = _bundledFolders();
+  var files = _images(folders);
+
+  final duplicates = _duplicates(files);
+  for (final group in duplicates) {
+    stderr.writeln('Identical files, keep one: ${group.map((f) => f.path).join(', ')}');
+  }
+
+  if (webp && !check) {
+    await _encodeWebp(files);
+    files = _images(folders);
+  }
+
+  final manifest = _manifest(files);
+  final current = File(_output).existsSync() ? File(_output).readAsStringSync() : '';
+
+  if (check) {
+    if (current != manifest) stderr.writeln('$_output is stale; run dart run tool/assets.dart');
+    if (current != manifest || duplicates.isNotEmpty) exit(1);
+    return;
+  }
+
+  File(_output).writeAsStringSync(manifest);
+  stdout.writeln('Wrote $_output (${files.length} images)');
+  if (duplicates.isNotEmpty) exit(1);
+}
+
+List<String> _bundledFolders() {
+  final folders = <String>[];
+  var inAssets = false;
+  for (final line in File('pubspec.yaml').readAsLinesSync()) {
+    if (line.trim() == 'assets:' && line.startsWith('  ') && !line.startsWith('   ')) {
+      inAssets = true;
+    } else if (inAssets && line.trimLeft().startsWith('- ')) {
+      folders.add(line.trim().substring(2).trim());
+    } else if (inAssets && line.trim().isNotEmpty) {
+      inAssets = false;
+    }
+  }
+  return folders;
+}
+
+List<File> _images(List<String> folders) {
+  final files = <File>[];
+  for (final folder in folders) {
+    final dir = Directory(folder);
+    if (!dir.existsSync()) continue;
+    for (final entity in dir.listSync()) {
+      if (entity is File && _isImage(entity.path)) files.add(entity);
+    }
+  }
+  files.sort((a, b) => a.path.compareTo(b.path));
+  return files;
+}
+
+bool _isImage(String path) => _imageExtensions.any(path.toLowerCase().endsWith);
+
+List<List<File>> _duplicates(List<File> files) {
+  final bySize = <int, List<File>>{};
+  for (final file in files) {
+    bySize.putIfAbsent(file.lengthSync(), () => []).add(file);
+  }
+  final groups = <List<File>>[];
+  for (final candidates in bySize.values.where((c) => c.length > 1)) {
+    final remaining = List.of(candidates);
+    while (remaining.isNotEmpty) {
+      final first = remaining.removeAt(0);
+      final bytes = first.readAsBytesSync();
+      final same = remaining.where((f) => _sameBytes(bytes, f.readAsBytesSync())).toList();
+      if (same.isEmpty) continue;
+      remaining.removeWhere(same.contains);
+      groups.add([first, ...same]);
+    }
+  }
+  return groups;
+}
+
+bool _sameBytes(Uint8List a, Uint8List b) {
+  if (a.length != b.length) return false;
+  for (var i = 0; i < a.length; i++) {
+    if (a[i] != b[i]) return false;
+  }
+  return true;
+}
+
+Future<void> _encodeWebp(List<File> files) async {
+  for (final file in files) {
+    if (file.path.endsWith('.webp') || _hasAlpha(file.readAsBytesSync())) continue;
+    final target = '${file.path.substring(0, file.path.lastIndexOf('.'))}.webp';
+    try {
+      final result = await Process.run('cwebp', ['-quiet', '-q', '80', file.path, '-o', target]);
+      if (result.exitCode != 0) {
+        stderr.writeln('cwebp failed for ${file.path}: ${result.stderr}');
+        continue;
+      }
+    } on ProcessException {
+      stderr.writeln('cwebp not found; skipping WebP encoding');
+      return;
+    }
+    final encoded = File(target);
+    if (encoded.lengthSync() < file.lengthSync() * 0.9) {
+      stdout.writeln('${file.path} -> $target '
+          '(${file.lengthSync() ~/ 1024} KB -> ${encoded.lengthSync() ~/ 1024} KB)');
+      file.deleteSync();
+    } else {
+      encoded.deleteSync();
+    }
+  }
+}
+
+// PNGs with an alpha channel or palette transparency keep their format.
+bool _hasAlpha(Uint8List bytes) {
+  if (!_isPng(bytes)) return false;
+  final colorType = bytes[25];
+  if (colorType == 4 || colorType == 6) return true;
+  return _pngChunks(bytes).contains('tRNS');
+}
+
+String _manifest(List<File> files) {
+  final out = StringBuffer()
+    ..writeln('// GENERATED by tool/assets.dart, do not edit.')
+    ..writeln('// Run `dart run tool/assets.dart` after adding, removing or replacing images.')
+    ..writeln()
+    ..writeln("import 'app_asset.dart';")
+    ..writeln()
+    ..writeln('class Assets {')
+    ..writeln('  Assets._();')
+    ..writeln();
+
+  final names = <String>[];
+  for (final file in files) {
+    final path = file.path.replaceAll(r'\', '/');
+    final size = _sizeOf(file.readAsBytesSync());
+    if (size == null) {
+      stderr.writeln('Unknown image format: $path');
+      continue;
+    }
+    final slash = path.lastIndexOf('/');
+    final variants = [
+      for (final folder in _variantFolders)
+        if (File('${path.substring(0, slash)}/$folder${path.substring(slash)}').existsSync())
+          folder.substring(0, folder.length - 1),
+    ];
+    final name = _identifier(path);
+    names.add(name);
+    final extra = variants.isEmpty ? '' : ', variants: [${variants.join(', ')}]';
+    out
+      ..writeln('  /// ${size[0]} x ${size[1]} px, ${file.lengthSync() ~/ 1024} KB.')
+      ..writeln("  static const AppAsset $name = AppAsset('$path', ${size[0]}, ${size[1]}$extra);")
+      ..writeln();
+  }
+
+  out
+    ..writeln('  static const List<AppAsset> all = [')
+    ..writeAll(names.map((n) => '    $n,\n'))
+    ..writeln('  ];')
+    ..writeln('}');
+  return out.toString();
+}
+
+// `assets/splash/Group 1410092258-1.png` -> `splashGroup1410092258_1`.
+String _identifier(String path) {
+  final parts = path.split('/');
+  final words = '${parts[parts.length - 2]} ${parts.last.substring(0, parts.last.lastIndexOf('.'))}'
+      .split(RegExp('[^A-Za-z0-9]+'))
+      .where((w) => w.isNotEmpty)
+      .toList();
+  final name = StringBuffer(words.first.toLowerCase());
+  for (final word in words.skip(1)) {
+    final previous = name.toString();
+    if (_isDigit(previous[previous.length - 1]) && _isDigit(word[0])) name.write('_');
+    name.write(word[0].toUpperCase() + word.substring(1));
+  }
+  return name.toString();
+}
+
+bool _isDigit(String c) => c.codeUnitAt(0) >= 48 && c.codeUnitAt(0) <= 57;
+
+bool _isPng(Uint8List b) =>
+    b.length > 24 && b[0] == 0x89 && b[1] == 0x50 && b[2] == 0x4E && b[3] == 0x47;
+
+Iterable<String> _pngChunks(Uint8List bytes) sync* {
+  final data = ByteData.sublistView(bytes);
+  var offset = 8;
+  while (offset + 8 <= bytes.length) {
+    final length = data.getUint32(offset);
+    final type = String.fromCharCodes(bytes.sublist(offset + 4, offset + 8));
+    yield type;
+    if (type == 'IDAT' || type == 'IEND') return;
+    offset += 12 + length;
+  }
+}
+
+/// Pixel width and height from the file header, or null.
+List<int>? _sizeOf(Uint8List bytes) {
+  final data = ByteData.sublistView(bytes);
+  if (_isPng(bytes)) return [data.getUint32(16), data.getUint32(20)];
+
+  if (bytes.length > 4 && bytes[0] == 0xFF && bytes[1] == 0xD8) {
+    var offset = 2;
+    while (offset + 9 < bytes.length) {
+      if (bytes[offset] != 0xFF) return null;
+      final marker = bytes[offset + 1];
+      final length = data.getUint16(offset + 2);
+      // SOF0..SOF15 except DHT (C4), JPG (C8) and DAC (CC).
+      if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+        return [data.getUint16(offset + 7), data.getUint16(offset + 5)];
+      }
+      offset += 2 + length;
+    }
+    return null;
+  }
+
+  if (bytes.length > 30 && String.fromCharCodes(bytes.sublist(8, 12)) == 'WEBP') {
+    switch (String.fromCharCodes(bytes.sublist(12, 16))) {
+      case 'VP8 ':
+        return [data.getUint16(26, Endian.little) & 0x3FFF, data.getUint16(28, Endian.little) & 0x3FFF];
+      case 'VP8L':
+        final bits = data.getUint32(21, Endian.little);
+        return [(bits & 0x3FFF) + 1, ((bits >> 14) & 0x3FFF) + 1];
+      case 'VP8X':
+        int u24(int o) => bytes[o] | bytes[o + 1] << 8 | bytes[o + 2] << 16;
+        return [u24(24) + 1, u24(27) + 1];
+    }
+  }
+  return null;
+}